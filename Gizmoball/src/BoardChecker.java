@@ -0,0 +1,268 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import model.BoardValidator;
+import model.CompressedFiles;
+import controller.GizmoballViewModel;
+
+
+/**
+ * Checks text board files without loading them, on as many threads as
+ * there are processors. Directories are searched for .txt files, which may
+ * be gzipped as .txt.gz files.
+ *
+ * One line of JSON is printed for each file, in the order the files were
+ * given, as {"file":..., "status":"ok"|"warning"|"error", "problems":[
+ * {"line":..., "severity":"error"|"warning", "message":...}, ...]}. A
+ * count of each status is printed to standard error at the end, and the
+ * exit status is 1 if any file has an error.
+ *
+ * Usage: BoardChecker [-size width height] [-threads n] file-or-directory...
+ */
+public class BoardChecker
+{
+	private static final int OK = 0, WARNING = 1, ERROR = 2;
+	private static final String[] STATUS_NAMES = { "ok", "warning", "error" };
+
+	public static void main(String[] args) throws Exception
+	{
+		int width = GizmoballViewModel.DEFAULT_BOARD_WIDTH;
+		int height = GizmoballViewModel.DEFAULT_BOARD_HEIGHT;
+		int threads = Runtime.getRuntime().availableProcessors();
+		List<File> files = new ArrayList<File>();
+
+		try
+		{
+			for (int i = 0; i < args.length; i++)
+			{
+				if (args[i].equals("-size"))
+				{
+					width = Integer.parseInt(args[++i]);
+					height = Integer.parseInt(args[++i]);
+				}
+				else if (args[i].equals("-threads"))
+				{
+					threads = Integer.parseInt(args[++i]);
+				}
+				else
+				{
+					find(new File(args[i]), files);
+				}
+			}
+		}
+		catch (RuntimeException e)
+		{
+			// a missing or badly formed number
+			files.clear();
+		}
+
+		if (files.isEmpty() || width <= 0 || height <= 0 || threads <= 0)
+		{
+			System.err.println("Usage: BoardChecker [-size width height] [-threads n] file-or-directory...");
+			System.exit(2);
+		}
+
+		final int boardWidth = width, boardHeight = height;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		int[] counts = new int[STATUS_NAMES.length];
+
+		try
+		{
+			List<Future<Report>> futures = new ArrayList<Future<Report>>();
+
+			for (final File file : files)
+			{
+				futures.add(executor.submit(new Callable<Report>() {
+					@Override
+					public Report call() {
+						return check(file, boardWidth, boardHeight);
+					}
+				}));
+			}
+
+			StringBuilder out = new StringBuilder();
+
+			for (int i = 0; i < futures.size(); i++)
+			{
+				Report report;
+
+				try
+				{
+					report = futures.get(i).get();
+				}
+				catch (ExecutionException e)
+				{
+					// a bug in the checker, report it against the file and
+					// carry on with the rest
+					report = failed(files.get(i), e.getCause());
+				}
+
+				counts[report.status]++;
+				out.append(report.line).append('\n');
+
+				if (out.length() > 64 * 1024)
+				{
+					System.out.print(out);
+					out.setLength(0);
+				}
+			}
+
+			System.out.print(out);
+			System.out.flush();
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+
+		System.err.println(files.size() + " files: " + counts[OK] + " ok, " + counts[WARNING] + " with warnings, "
+				+ counts[ERROR] + " with errors");
+
+		if (counts[ERROR] > 0)
+		{
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * The report for one file.
+	 */
+	private static class Report
+	{
+		final int status;
+		final String line;
+
+		Report(int status, String line)
+		{
+			this.status = status;
+			this.line = line;
+		}
+	}
+
+	/**
+	 * Adds a file, or the .txt files in a directory and those under it in
+	 * name order.
+	 */
+	private static void find(File file, List<File> files)
+	{
+		if (!file.isDirectory())
+		{
+			files.add(file);
+			return;
+		}
+
+		File[] children = file.listFiles();
+
+		if (children == null)
+		{
+			return;
+		}
+
+		Arrays.sort(children);
+
+		for (File child : children)
+		{
+			if (child.isDirectory() || child.getName().endsWith(".txt")
+					|| child.getName().endsWith(".txt" + CompressedFiles.SUFFIX))
+			{
+				find(child, files);
+			}
+		}
+	}
+
+	/**
+	 * Checks one file.
+	 *
+	 * @return The report for the file.
+	 */
+	private static Report check(File file, int width, int height)
+	{
+		StringBuilder report = new StringBuilder();
+		List<BoardValidator.Problem> problems;
+		int status = OK;
+
+		try
+		{
+			problems = new BoardValidator(width, height).validate(CompressedFiles.openReader(file.getPath()));
+		}
+		catch (IOException e)
+		{
+			return failed(file, e);
+		}
+
+		for (BoardValidator.Problem problem : problems)
+		{
+			if (report.length() > 0)
+			{
+				report.append(',');
+			}
+
+			report.append("{\"line\":").append(problem.line).append(",\"severity\":\"")
+					.append(problem.error ? "error" : "warning").append("\",\"message\":");
+			quote(problem.message, report);
+			report.append('}');
+
+			status = Math.max(status, problem.error ? ERROR : WARNING);
+		}
+
+		StringBuilder line = new StringBuilder("{\"file\":");
+		quote(file.getPath(), line);
+		line.append(",\"status\":\"").append(STATUS_NAMES[status]).append("\",\"problems\":[").append(report).append("]}");
+		return new Report(status, line.toString());
+	}
+
+	/**
+	 * Makes the report for a file which couldn't be checked.
+	 *
+	 * @param file - the file.
+	 * @param cause - why it couldn't be checked.
+	 * @return The report, with the cause as an error on line 0.
+	 */
+	private static Report failed(File file, Throwable cause)
+	{
+		String message = cause instanceof IOException ? cause.getMessage() : cause.toString();
+		StringBuilder line = new StringBuilder("{\"file\":");
+		quote(file.getPath(), line);
+		line.append(",\"status\":\"").append(STATUS_NAMES[ERROR])
+				.append("\",\"problems\":[{\"line\":0,\"severity\":\"error\",\"message\":");
+		quote(String.valueOf(message), line);
+		line.append("}]}");
+		return new Report(ERROR, line.toString());
+	}
+
+	/**
+	 * Appends a string as a JSON string.
+	 */
+	private static void quote(String text, StringBuilder out)
+	{
+		out.append('"');
+
+		for (int i = 0; i < text.length(); i++)
+		{
+			char c = text.charAt(i);
+
+			if (c == '"' || c == '\\')
+			{
+				out.append('\\').append(c);
+			}
+			else if (c < 0x20)
+			{
+				out.append(String.format("\\u%04x", (int) c));
+			}
+			else
+			{
+				out.append(c);
+			}
+		}
+
+		out.append('"');
+	}
+}
@@ -0,0 +1,48 @@
+import model.BinaryLoader;
+import model.BinarySaver;
+import model.CompressedFiles;
+import model.Board;
+import model.IBoardLoader;
+import model.Loader;
+import model.Saver;
+import model.physics.MitPhysicsEngineWrapper;
+import controller.GizmoballViewModel;
+import controller.TriggerHandler;
+
+
+/**
+ * Converts a board file between the text and the binary format. The output
+ * is in whichever format the input is not.
+ *
+ * Usage: BoardConverter input-file output-file
+ */
+public class BoardConverter
+{
+	public static void main(String[] args) throws Exception
+	{
+		if (args.length != 2)
+		{
+			System.err.println("Usage: BoardConverter input-file output-file");
+			System.exit(1);
+		}
+
+		boolean binary = BinaryLoader.isBinaryFile(args[0]);
+		Board board = new Board(GizmoballViewModel.DEFAULT_BOARD_WIDTH, GizmoballViewModel.DEFAULT_BOARD_HEIGHT);
+		MitPhysicsEngineWrapper engine = new MitPhysicsEngineWrapper();
+		IBoardLoader loader = Loader.open(args[0], board);
+		loader.load(engine);
+		TriggerHandler triggerHandler = new TriggerHandler(loader.getKeyUpTriggers(), loader.getKeyDownTriggers());
+
+		if (binary)
+		{
+			new Saver(args[1]).save(engine, board, triggerHandler);
+		}
+		else
+		{
+			new BinarySaver(args[1]).save(engine, board, triggerHandler);
+		}
+
+		// a compressed output file is still being written out
+		CompressedFiles.awaitAll();
+	}
+}
@@ -1,37 +1,134 @@
-import javax.swing.JOptionPane;
-import javax.swing.SwingUtilities;
-import javax.swing.UIManager;
-
-import view.window.ApplicationWindow;
-import controller.DesignModeViewModel;
-import controller.GizmoballViewModel;
-
-
-public class Driver
-{
-	public static void main(String[] args)
-	{
-		try
-		{
-			UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
-		}
-		catch (Exception e)
-		{
-			e.printStackTrace();
-			JOptionPane.showMessageDialog(null, "Error setting look and feel.", "Error", JOptionPane.ERROR_MESSAGE);
-		}
-
-		final GizmoballViewModel viewmodel = new GizmoballViewModel();
-		final DesignModeViewModel designmodeViewmodel = new DesignModeViewModel(viewmodel.getBoard(), viewmodel.getTriggerHandler());
-
-		SwingUtilities.invokeLater(new Runnable() {
-			public void run() {
-				ApplicationWindow window = new ApplicationWindow(viewmodel, designmodeViewmodel);
-				window.setVisible(true);
-				//Providing same controller/model to another view instance shows mvc
-				//ApplicationWindow window2 = new ApplicationWindow(viewmodel, designmodeViewmodel);
-				//window2.setVisible(true);
-			}
-		});
-	}
-}
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.io.IOException;
+
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+import javax.swing.UIManager;
+
+import model.BoardJournal;
+import model.CompressedFiles;
+import view.window.ApplicationWindow;
+import controller.DesignModeViewModel;
+import controller.GizmoballViewModel;
+import exceptions.BadFileException;
+
+
+public class Driver
+{
+	// the directory to keep the design journal in can be set with this system property
+	public static final String JOURNAL_DIRECTORY_PROPERTY = "gizmoball.journal";
+	// set this system property to true to hold keys until the next frame, so runs can be repeated exactly
+	public static final String DETERMINISTIC_PROPERTY = "gizmoball.deterministic";
+	// parsed boards are kept in the directory given by this system property, and in memory up to the megabytes given by the next
+	public static final String BOARD_CACHE_DIRECTORY_PROPERTY = "gizmoball.boardCache";
+	public static final String BOARD_CACHE_BUDGET_PROPERTY = "gizmoball.boardCacheMegabytes";
+
+	public static void main(String[] args)
+	{
+		try
+		{
+			UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+		}
+		catch (Exception e)
+		{
+			e.printStackTrace();
+			JOptionPane.showMessageDialog(null, "Error setting look and feel.", "Error", JOptionPane.ERROR_MESSAGE);
+		}
+
+		final GizmoballViewModel viewmodel;
+
+		// the size of the board can be given as the first two arguments
+		if (args.length >= 2)
+		{
+			try
+			{
+				viewmodel = new GizmoballViewModel(Integer.parseInt(args[0]), Integer.parseInt(args[1]));
+			}
+			catch (NumberFormatException e)
+			{
+				System.err.println("usage: Driver [board-width board-height]");
+				return;
+			}
+		}
+		else
+		{
+			viewmodel = new GizmoballViewModel();
+		}
+
+		viewmodel.setDeterministic(Boolean.getBoolean(DETERMINISTIC_PROPERTY));
+
+		String cacheDirectory = System.getProperty(BOARD_CACHE_DIRECTORY_PROPERTY);
+
+		if (cacheDirectory != null)
+		{
+			viewmodel.getBoardCache().setDirectory(new File(cacheDirectory));
+		}
+
+		Integer cacheBudget = Integer.getInteger(BOARD_CACHE_BUDGET_PROPERTY);
+
+		if (cacheBudget != null)
+		{
+			viewmodel.getBoardCache().setBudget(cacheBudget * 1024L * 1024);
+		}
+
+		final BoardJournal journal = viewmodel.getJournal();
+		File journalDirectory = new File(System.getProperty(JOURNAL_DIRECTORY_PROPERTY,
+				new File(System.getProperty("user.home"), ".gizmoball").getPath()));
+
+		// recover the board if the last session didn't close properly
+		try
+		{
+			if (journal.open(journalDirectory))
+			{
+				JOptionPane.showMessageDialog(null, "The board from a session which didn't close properly has been recovered.",
+						"Board recovered", JOptionPane.INFORMATION_MESSAGE);
+			}
+		}
+		catch (IOException e)
+		{
+			// the application works without the journal, edits just can't be recovered
+			e.printStackTrace();
+		}
+		catch (BadFileException e)
+		{
+			viewmodel.newGame();
+			JOptionPane.showMessageDialog(null, "The board from a session which didn't close properly couldn't be recovered, its files have been left in "
+					+ journalDirectory + ". " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+		}
+
+		final DesignModeViewModel designmodeViewmodel = new DesignModeViewModel(viewmodel.getBoard(), viewmodel.getTriggerHandler(), journal);
+
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run() {
+				ApplicationWindow window = new ApplicationWindow(viewmodel, designmodeViewmodel);
+
+				// closing the window is a proper close, there's nothing to recover
+				window.addWindowListener(new WindowAdapter() {
+					@Override
+					public void windowClosing(WindowEvent e) {
+						journal.close();
+
+						// compressed saves are still being written out, the
+						// window has been told of any which failed
+						try
+						{
+							CompressedFiles.awaitAll();
+						}
+						catch (IOException error)
+						{
+							JOptionPane.showMessageDialog(null, "Error writing file: " + error.getMessage(), "Save error",
+									JOptionPane.ERROR_MESSAGE);
+						}
+					}
+				});
+
+				window.setVisible(true);
+				//Providing same controller/model to another view instance shows mvc
+				//ApplicationWindow window2 = new ApplicationWindow(viewmodel, designmodeViewmodel);
+				//window2.setVisible(true);
+			}
+		});
+	}
+}
@@ -0,0 +1,103 @@
+import java.io.File;
+
+import model.Board;
+import model.CheckpointSaver;
+import model.CompressedFiles;
+import model.IBoardLoader;
+import model.Loader;
+import model.ReplayPlayer;
+import model.physics.MitPhysicsEngineWrapper;
+import view.board.OffscreenRenderer;
+import view.board.OffscreenRenderer.FrameFormat;
+import controller.GizmoballViewModel;
+import controller.TriggerHandler;
+
+
+/**
+ * Runs a board without a display and writes every frame out as an image,
+ * so the behaviour of a table can be compared between builds.
+ * 
+ * The board file can be a checkpoint, to carry on a run from where it was
+ * saved. If the gizmoball.checkpoint system property is set, a checkpoint
+ * is saved to that file after the last frame.
+ * 
+ * The board file can also be a replay, which is played back with its key
+ * presses from the time in seconds given by the gizmoball.replay.start
+ * system property, or from the start.
+ * 
+ * Usage: HeadlessRecorder board-file output-directory frames [png|rgb] [width height]
+ */
+public class HeadlessRecorder
+{
+	public static final String CHECKPOINT_PROPERTY = "gizmoball.checkpoint";
+	public static final String REPLAY_START_PROPERTY = "gizmoball.replay.start";
+	
+	private static final int DEFAULT_SIZE = 400;
+	
+	public static void main(String[] args) throws Exception
+	{
+		System.setProperty("java.awt.headless", "true");
+		
+		if (args.length != 3 && args.length != 4 && args.length != 6)
+		{
+			System.err.println("Usage: HeadlessRecorder board-file output-directory frames [png|rgb] [width height]");
+			System.exit(1);
+		}
+		
+		File directory = new File(args[1]);
+		int frames = Integer.parseInt(args[2]);
+		FrameFormat format = args.length > 3 ? FrameFormat.valueOf(args[3].toUpperCase()) : FrameFormat.PNG;
+		int width = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_SIZE;
+		int height = args.length > 4 ? Integer.parseInt(args[5]) : DEFAULT_SIZE;
+		
+		if (!directory.isDirectory() && !directory.mkdirs())
+		{
+			System.err.println("Cannot create " + directory);
+			System.exit(1);
+		}
+		
+		Board board = new Board(GizmoballViewModel.DEFAULT_BOARD_WIDTH, GizmoballViewModel.DEFAULT_BOARD_HEIGHT);
+		MitPhysicsEngineWrapper engine = new MitPhysicsEngineWrapper();
+		TriggerHandler triggerhandler = new TriggerHandler();
+		ReplayPlayer player = null;
+		
+		if (ReplayPlayer.isReplayFile(args[0]))
+		{
+			player = new ReplayPlayer(args[0]);
+			double start = Double.parseDouble(System.getProperty(REPLAY_START_PROPERTY, "0"));
+			player.seek((int) Math.round(start * player.getFramesPerSecond()), engine, board, triggerhandler);
+		}
+		else
+		{
+			IBoardLoader loader = Loader.open(args[0], board);
+			loader.load(engine);
+			triggerhandler.addLinks(loader.getKeyUpTriggers(), loader.getKeyDownTriggers());
+			engine.initialise(board);
+		}
+		
+		int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+		OffscreenRenderer renderer = new OffscreenRenderer(board, width, height, format, directory, threads);
+		
+		for (int i = 0; i < frames; i++)
+		{
+			renderer.renderFrame(i);
+			
+			if (player != null)
+				player.step(engine, triggerhandler);
+			else
+				engine.calculateState((double) 1 / GizmoballViewModel.FRAMES_PER_SEC);
+		}
+		
+		renderer.finish();
+		
+		String checkpoint = System.getProperty(CHECKPOINT_PROPERTY);
+		
+		if (checkpoint != null)
+		{
+			new CheckpointSaver(checkpoint).save(engine, board, triggerhandler);
+		}
+
+		// a compressed checkpoint is still being written out
+		CompressedFiles.awaitAll();
+	}
+}
@@ -0,0 +1,368 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import model.Ball;
+import model.Board;
+import model.BoardJournal;
+import model.IBoardItem;
+import model.gizmos.IGizmo;
+
+/**
+ * The undo history of design mode. Each edit made to the board creates a new
+ * version, holding the state of every item the edit touched in a persistent
+ * map shared with the versions before it. Edits cost O(log n) in the number
+ * of items changed, and the history takes memory in proportion to the edits
+ * made rather than to the size of the board.
+ *
+ * An item's state from before it was first edited is only captured when an
+ * edit first touches it, so starting a history on a large board is free.
+ *
+ * Undoing and redoing tell the journal what they change, so it records them
+ * as edits rather than writing the whole board again.
+ */
+class DesignHistory {
+
+	private Board board;
+	private TriggerHandler triggerHandler;
+	private BoardJournal journal;
+	private List<Version> versions;
+	private int current;
+	// the state of each touched item before the first edit to touch it
+	private Map<Integer, ItemState> initialStates;
+	private Map<IBoardItem, Integer> ids;
+	private Set<IBoardItem> touched;
+
+	/**
+	 * A version of the board, made by one edit.
+	 */
+	private static class Version {
+		final PersistentIntMap<ItemState> states;
+		final int[] touched;
+
+		Version(PersistentIntMap<ItemState> states, int[] touched) {
+			this.states = states;
+			this.touched = touched;
+		}
+	}
+
+	/**
+	 * The state of a gizmo or ball at one version. This is never changed
+	 * once created, so versions can share it.
+	 */
+	private static class ItemState {
+		final IBoardItem item;
+		final boolean onBoard;
+		final double x, y;
+		final int orientation;
+		final IBoardItem[] connections;
+		final int[] keysUp, keysDown;
+
+		ItemState(IBoardItem item, boolean onBoard, double x, double y, int orientation,
+				IBoardItem[] connections, int[] keysUp, int[] keysDown) {
+			this.item = item;
+			this.onBoard = onBoard;
+			this.x = x;
+			this.y = y;
+			this.orientation = orientation;
+			this.connections = connections;
+			this.keysUp = keysUp;
+			this.keysDown = keysDown;
+		}
+	}
+
+	/**
+	 * Creates an empty history.
+	 *
+	 * @param board - the board being edited.
+	 * @param triggerHandler - the key links being edited.
+	 * @param journal - the journal to record undoing and redoing in, between
+	 *        its beginEdit and endEdit.
+	 */
+	DesignHistory(Board board, TriggerHandler triggerHandler, BoardJournal journal) {
+		this.board = board;
+		this.triggerHandler = triggerHandler;
+		this.journal = journal;
+		clear();
+	}
+
+	/**
+	 * Forgets every version, the current board becomes the first one.
+	 */
+	void clear() {
+		versions = new ArrayList<Version>();
+		versions.add(new Version(PersistentIntMap.<ItemState> empty(), new int[0]));
+		current = 0;
+		initialStates = new HashMap<Integer, ItemState>();
+		ids = new IdentityHashMap<IBoardItem, Integer>();
+		touched = null;
+	}
+
+	/**
+	 * Starts recording an edit.
+	 */
+	void beginEdit() {
+		touched = new LinkedHashSet<IBoardItem>();
+	}
+
+	/**
+	 * Records that an item is about to be changed by the current edit. This
+	 * must be called before the change is made.
+	 *
+	 * @param item - the item being changed.
+	 */
+	void touch(IBoardItem item) {
+		if (touched == null || touched.contains(item))
+			return;
+
+		Integer id = ids.get(item);
+
+		if (id == null) {
+			id = ids.size();
+			ids.put(item, id);
+		}
+
+		// the first time an item is touched, its state has been the same in
+		// every version so far
+		if (!initialStates.containsKey(id))
+			initialStates.put(id, capture(item));
+
+		touched.add(item);
+	}
+
+	/**
+	 * Finishes recording an edit, making a new version from the state of the
+	 * items it touched. Any versions which could have been redone are lost.
+	 */
+	void endEdit() {
+		if (touched == null || touched.isEmpty()) {
+			touched = null;
+			return;
+		}
+
+		PersistentIntMap<ItemState> states = versions.get(current).states;
+		int[] touchedIds = new int[touched.size()];
+		int i = 0;
+
+		for (IBoardItem item : touched) {
+			touchedIds[i] = ids.get(item);
+			states = states.put(touchedIds[i++], capture(item));
+		}
+
+		while (versions.size() > current + 1)
+			versions.remove(versions.size() - 1);
+
+		versions.add(new Version(states, touchedIds));
+		current++;
+		touched = null;
+	}
+
+	boolean canUndo() {
+		return current > 0;
+	}
+
+	boolean canRedo() {
+		return current < versions.size() - 1;
+	}
+
+	/**
+	 * Returns the board to the version before the current one.
+	 */
+	void undo() {
+		if (!canUndo())
+			return;
+
+		int[] changed = versions.get(current).touched;
+		current--;
+		restore(changed);
+	}
+
+	/**
+	 * Reapplies the version after the current one.
+	 */
+	void redo() {
+		if (!canRedo())
+			return;
+
+		current++;
+		restore(versions.get(current).touched);
+	}
+
+	/**
+	 * Sets items to their state in the current version.
+	 */
+	private void restore(int[] changed) {
+		ItemState[] states = new ItemState[changed.length];
+
+		for (int i = 0; i < changed.length; i++) {
+			states[i] = versions.get(current).states.get(changed[i]);
+
+			if (states[i] == null)
+				states[i] = initialStates.get(changed[i]);
+		}
+
+		// the items put back on the board, which the journal knows have no links
+		Set<IBoardItem> added = Collections.newSetFromMap(new IdentityHashMap<IBoardItem, Boolean>());
+		board.beginUpdate();
+
+		try {
+			// put items on the board before linking anything to them
+			for (ItemState state : states) {
+				if (restorePlacement(state))
+					added.add(state.item);
+			}
+
+			for (ItemState state : states)
+				restoreLinks(state, added);
+		} finally {
+			board.endUpdate();
+		}
+	}
+
+	/**
+	 * Puts an item back where it was, adding or removing it if need be.
+	 *
+	 * @return True if the item was added to the board.
+	 */
+	private boolean restorePlacement(ItemState state) {
+		if (state.item instanceof IGizmo) {
+			IGizmo gizmo = (IGizmo) state.item;
+			boolean onBoard = board.contains(gizmo);
+
+			if (!state.onBoard) {
+				if (onBoard) {
+					journal.removing(gizmo);
+					board.removeGizmo(gizmo);
+				}
+
+				return false;
+			}
+
+			if (!onBoard) {
+				gizmo.move((int) state.x, (int) state.y);
+				board.addGizmo(gizmo);
+			} else if (gizmo.getX() != (int) state.x || gizmo.getY() != (int) state.y) {
+				board.moveGizmo(gizmo, (int) state.x, (int) state.y);
+				journal.moved(gizmo);
+			}
+
+			for (int i = 0; i < 4 && gizmo.canRotate() && gizmo.getOrientation() != state.orientation; i++) {
+				board.rotateGizmo(gizmo);
+
+				if (onBoard)
+					journal.rotated(gizmo);
+			}
+
+			// recorded once it has been turned, so it is declared as it ends up
+			if (!onBoard)
+				journal.added(gizmo);
+
+			return !onBoard;
+		} else if (state.item instanceof Ball) {
+			Ball ball = (Ball) state.item;
+			boolean onBoard = board.contains(ball);
+
+			if (!state.onBoard) {
+				if (onBoard) {
+					journal.removing(ball);
+					board.removeBall(ball);
+				}
+
+				return false;
+			}
+
+			boolean moved = ball.getX() != state.x || ball.getY() != state.y;
+			ball.move(state.x, state.y);
+
+			if (!onBoard) {
+				board.addBall(ball);
+				journal.added(ball);
+			} else if (moved) {
+				journal.moved(ball);
+			}
+
+			return !onBoard;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Sets an item's connections and key links. The journal is told to
+	 * remove every link it holds for the item and then to make the ones
+	 * restored, so they end up in the same order as on the board.
+	 *
+	 * @param added - the items just put back on the board, which the journal
+	 *        holds no links for.
+	 */
+	private void restoreLinks(ItemState state, Set<IBoardItem> added) {
+		IBoardItem item = state.item;
+		boolean journalled = board.contains(item) && !added.contains(item);
+		List<IBoardItem> connections = item.getConnectedItems();
+
+		if (journalled) {
+			for (IBoardItem connected : connections) {
+				if (board.contains(connected) && !added.contains(connected))
+					journal.disconnected(item, connected);
+			}
+
+			for (int key : triggerHandler.getKeysUp(item))
+				journal.keyDisconnected(key, true, item);
+
+			for (int key : triggerHandler.getKeysDown(item))
+				journal.keyDisconnected(key, false, item);
+		}
+
+		connections.clear();
+
+		for (IBoardItem connected : state.connections)
+			connections.add(connected);
+
+		triggerHandler.removeLinks(item);
+
+		for (int key : state.keysUp)
+			triggerHandler.addLinkUp(key, item);
+
+		for (int key : state.keysDown)
+			triggerHandler.addLinkDown(key, item);
+
+		if (board.contains(item)) {
+			for (IBoardItem connected : connections) {
+				if (board.contains(connected))
+					journal.connected(item, connected);
+			}
+
+			for (int key : state.keysUp)
+				journal.keyConnected(key, true, item);
+
+			for (int key : state.keysDown)
+				journal.keyConnected(key, false, item);
+		}
+	}
+
+	private ItemState capture(IBoardItem item) {
+		double x = 0, y = 0;
+		int orientation = 0;
+
+		if (item instanceof IGizmo) {
+			IGizmo gizmo = (IGizmo) item;
+			x = gizmo.getX();
+			y = gizmo.getY();
+			orientation = gizmo.getOrientation();
+		} else if (item instanceof Ball) {
+			x = ((Ball) item).getX();
+			y = ((Ball) item).getY();
+		}
+
+		return new ItemState(item, board.contains(item), x, y, orientation,
+				item.getConnectedItems().toArray(new IBoardItem[0]),
+				triggerHandler.getKeysUp(item), triggerHandler.getKeysDown(item));
+	}
+}
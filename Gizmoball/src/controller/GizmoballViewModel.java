@@ -1,157 +1,471 @@
-package controller;
-
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.util.Observable;
-
-import javax.swing.Timer;
-
-import model.Board;
-import model.IPhysicsEngine;
-import model.Loader;
-import model.Saver;
-import model.physics.MitPhysicsEngineWrapper;
-import exceptions.BadFileException;
-
-/**
- * Represents the data and logic required by a view. This is a viewmodel class
- * in the MVVM pattern.
- */
-public class GizmoballViewModel extends Observable implements ActionListener {
-
-	private static final int FRAMES_PER_SEC = 30;
-	private static final int DEFAULT_BOARD_WIDTH = 20,
-			DEFAULT_BOARD_HEIGHT = 20;
-	private Board board;
-	private Timer timer;
-	private IPhysicsEngine engine;
-	private TriggerHandler triggerhandler;
-
-	/**
-	 * This enum represents the update reason of the board. It is used to
-	 * inficate what variables to set, whether to update the board, etc.
-	 */
-	public enum UpdateReason {
-		
-		RunStateChanged, BoardChanged, SelectedToolChanged, StatusChanged
-	}
-
-	public GizmoballViewModel() {
-		
-		timer = new Timer(1000 / FRAMES_PER_SEC, this);
-		board = new Board(DEFAULT_BOARD_WIDTH, DEFAULT_BOARD_HEIGHT);
-		engine = new MitPhysicsEngineWrapper();
-		triggerhandler = new TriggerHandler();
-	}
-
-	/**
-	 * Clears the board.
-	 */
-	public void newGame() {
-		
-		board.getBalls().clear();
-		board.getGizmos().clear();
-		triggerhandler.clear();
-		this.setChanged();
-		this.notifyObservers(UpdateReason.BoardChanged);
-	}
-
-	/**
-	 * Loads the board from a file.
-	 * 
-	 * @param path The file path to load.
-	 * @throws FileNotFoundException Thrown if the file is not found.
-	 * @throws IOException Thrown if there is a problem reading the file.
-	 * @throws BadFileException Thrown if the file format is invalid.
-	 */
-	public void loadGame(String path) throws FileNotFoundException,
-			IOException, BadFileException {
-		newGame();
-
-		Loader loader = new Loader(path, board);
-		loader.load(engine);
-		triggerhandler.addLinks(loader.getKeyUpTriggers(),
-				loader.getKeyDownTriggers());
-		this.setChanged();
-		this.notifyObservers(UpdateReason.BoardChanged);
-	}
-
-	/**
-	 * Saves the board to a file.
-	 * 
-	 * @param path The path to save to.
-	 * @throws IOException Thrown if there is an error writing to the file.
-	 */
-	public void saveGame(String path) throws IOException {
-		Saver saver = new Saver(path);
-		saver.save(engine, board, triggerhandler);
-	}
-
-	/**
-	 * Toggles the run state of the engine.
-	 */
-	public void toggleRunState() {
-		if (this.getIsRunning())
-			stopRunning();
-		else
-			startRunning();
-	}
-
-	/**
-	 * Starts the engine running.
-	 */
-	public void startRunning() {
-		if (!this.getIsRunning()) {
-			engine.initialise(board);
-			timer.start();
-			this.setChanged();
-			this.notifyObservers(UpdateReason.RunStateChanged);
-		}
-	}
-
-	/**
-	 * Stops the engine from running.
-	 */
-	public void stopRunning() {
-		if (this.getIsRunning()) {
-			timer.stop();
-			this.setChanged();
-			this.notifyObservers(UpdateReason.RunStateChanged);
-		}
-	}
-
-	/**
-	 * Gets the run state of the engine.
-	 * 
-	 * @return True if the engine is running; otherwise, false.
-	 */
-	public boolean getIsRunning() {
-		return timer.isRunning();
-	}
-
-	/**
-	 * Callback method for engine timer.
-	 */
-	@Override
-	public void actionPerformed(ActionEvent e) {
-		
-		engine.calculateState((double) 1 / FRAMES_PER_SEC);
-		this.setChanged();
-		this.notifyObservers(UpdateReason.BoardChanged);
-	}
-
-	/**
-	 * Gets the board instance.
-	 * 
-	 * @return
-	 */
-	public Board getBoard() {
-		return board;
-	}
-
-	public TriggerHandler getTriggerHandler() {
-		return triggerhandler;
-	}
-}
+package controller;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.Observable;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+import model.Board;
+import model.BoardCache;
+import model.BoardJournal;
+import model.CheckpointLoader;
+import model.CheckpointSaver;
+import model.IBoardItem;
+import model.IBoardLoader;
+import model.ILoadProgressListener;
+import model.IPhysicsEngine;
+import model.ReplayPlayer;
+import model.ReplayRecorder;
+import model.Saver;
+import model.physics.MitPhysicsEngineWrapper;
+import exceptions.BadFileException;
+
+/**
+ * Represents the data and logic required by a view. This is a viewmodel class
+ * in the MVVM pattern.
+ */
+public class GizmoballViewModel extends Observable implements ActionListener {
+
+	public static final int FRAMES_PER_SEC = 30;
+	public static final int DEFAULT_BOARD_WIDTH = 20,
+			DEFAULT_BOARD_HEIGHT = 20;
+	// how often a replay being recorded takes a keyframe
+	public static final int REPLAY_KEYFRAME_SECONDS = 5;
+	// how many bytes of parsed boards are kept to load again
+	public static final long DEFAULT_BOARD_CACHE_BUDGET = 32 << 20;
+	private Board board;
+	private Timer timer;
+	private IPhysicsEngine engine;
+	private TriggerHandler triggerhandler;
+	private BoardJournal journal;
+	private BoardCache boardCache;
+	private ReplayRecorder recorder;
+	private boolean deterministic;
+	// the number of steps run, which views drawing from another thread read with the board locked
+	private long stepCount;
+
+	/**
+	 * This enum represents the update reason of the board. It is used to
+	 * inficate what variables to set, whether to update the board, etc.
+	 */
+	public enum UpdateReason {
+		
+		RunStateChanged, BoardChanged, SelectedToolChanged, StatusChanged, PositionBoxChanged
+	}
+
+	public GizmoballViewModel() {
+		
+		this(DEFAULT_BOARD_WIDTH, DEFAULT_BOARD_HEIGHT);
+	}
+
+	/**
+	 * Creates a viewmodel with a board of the given size.
+	 * 
+	 * @param boardWidth - the width of the board.
+	 * @param boardHeight - the height of the board.
+	 */
+	public GizmoballViewModel(int boardWidth, int boardHeight) {
+		
+		timer = new Timer(1000 / FRAMES_PER_SEC, this);
+		board = new Board(boardWidth, boardHeight);
+		engine = new MitPhysicsEngineWrapper();
+		triggerhandler = new TriggerHandler();
+		journal = new BoardJournal(engine, board, triggerhandler);
+		boardCache = new BoardCache(DEFAULT_BOARD_CACHE_BUDGET);
+	}
+
+	/**
+	 * Clears the board.
+	 */
+	public void newGame() {
+		
+		stopRecording();
+		board.clear();
+		triggerhandler.clear();
+		journal.compact();
+		this.setChanged();
+		this.notifyObservers(UpdateReason.BoardChanged);
+	}
+
+	/**
+	 * Clears the board and changes its size.
+	 * 
+	 * @param boardWidth - the new width of the board.
+	 * @param boardHeight - the new height of the board.
+	 */
+	public void newGame(int boardWidth, int boardHeight) {
+		
+		board.setSize(boardWidth, boardHeight);
+		newGame();
+	}
+
+	/**
+	 * Loads the board from a file, in either the text or the binary format.
+	 * A text file loaded before is made from the board cache.
+	 * 
+	 * @param path The file path to load.
+	 * @throws FileNotFoundException Thrown if the file is not found.
+	 * @throws IOException Thrown if there is a problem reading the file.
+	 * @throws BadFileException Thrown if the file format is invalid.
+	 */
+	public void loadGame(String path) throws FileNotFoundException,
+			IOException, BadFileException {
+		newGame();
+
+		IBoardLoader loader = boardCache.open(path, board, null);
+
+		try {
+			loader.load(engine);
+			triggerhandler.addLinks(loader.getKeyUpTriggers(),
+					loader.getKeyDownTriggers());
+		} finally {
+			journal.compact();
+		}
+
+		this.setChanged();
+		this.notifyObservers(UpdateReason.BoardChanged);
+	}
+
+	/**
+	 * Loads the board from a file, showing each part of a text file as soon
+	 * as it has loaded. This is called from a worker thread, which reads the
+	 * file while every change to the board is made on the event dispatch
+	 * thread, where the board is drawn. The engine must be stopped first, on
+	 * the event dispatch thread, as it would step the board as it fills in.
+	 * 
+	 * @param path The file path to load.
+	 * @param listener Told each time more of the file has loaded, once its
+	 *        items are on the board, or null.
+	 * @throws FileNotFoundException Thrown if the file is not found.
+	 * @throws IOException Thrown if there is a problem reading the file.
+	 * @throws BadFileException Thrown if the file format is invalid.
+	 */
+	public void loadGame(String path, final ILoadProgressListener listener)
+			throws FileNotFoundException, IOException, BadFileException {
+		onEventThread(new Runnable() {
+			@Override
+			public void run() {
+				// the recording can't show the board being replaced
+				stopRecording();
+				board.clear();
+				triggerhandler.clear();
+				journal.compact();
+				setChanged();
+				notifyObservers(UpdateReason.BoardChanged);
+			}
+		});
+
+		final IBoardLoader loader = boardCache.open(path, board, new ILoadProgressListener() {
+			@Override
+			public void loadProgressed(final List<IBoardItem> items, int linesLoaded, int lineCount) {
+				if (!items.isEmpty()) {
+					onEventThread(new Runnable() {
+						@Override
+						public void run() {
+							board.addAll(items);
+							setChanged();
+							notifyObservers(UpdateReason.BoardChanged);
+						}
+					});
+				}
+
+				if (listener != null)
+					listener.loadProgressed(items, linesLoaded, lineCount);
+			}
+		});
+
+		try {
+			loader.load(engine);
+		} finally {
+			onEventThread(new Runnable() {
+				@Override
+				public void run() {
+					triggerhandler.addLinks(loader.getKeyUpTriggers(),
+							loader.getKeyDownTriggers());
+					journal.compact();
+					setChanged();
+					notifyObservers(UpdateReason.BoardChanged);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Runs a change to the board on the event dispatch thread, waiting for
+	 * it to finish so the loader never gets ahead of the board. If the wait
+	 * is interrupted the change still runs, just later.
+	 */
+	private void onEventThread(Runnable change) {
+		if (SwingUtilities.isEventDispatchThread()) {
+			change.run();
+			return;
+		}
+
+		try {
+			SwingUtilities.invokeAndWait(change);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (InvocationTargetException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+
+			throw (Error) e.getCause();
+		}
+	}
+
+	/**
+	 * Saves the board to a file.
+	 * 
+	 * @param path The path to save to.
+	 * @throws IOException Thrown if there is an error writing to the file.
+	 */
+	public void saveGame(String path) throws IOException {
+		Saver saver = new Saver(path);
+		saver.save(engine, board, triggerhandler);
+	}
+
+	/**
+	 * Saves a checkpoint of the board, which keeps everything that changes
+	 * while it runs. This can be called between frames while running.
+	 * 
+	 * @param path The path to save to.
+	 * @throws IOException Thrown if there is an error writing to the file.
+	 */
+	public void saveCheckpoint(String path) throws IOException {
+		CheckpointSaver saver = new CheckpointSaver(path);
+		saver.save(engine, board, triggerhandler);
+	}
+
+	/**
+	 * Restores a checkpoint. If the engine is running it carries on running
+	 * from the checkpoint.
+	 * 
+	 * @param path The file path to load.
+	 * @throws FileNotFoundException Thrown if the file is not found.
+	 * @throws IOException Thrown if there is a problem reading the file.
+	 * @throws BadFileException Thrown if the file format is invalid.
+	 */
+	public void loadCheckpoint(String path) throws FileNotFoundException,
+			IOException, BadFileException {
+		// the recording can't show the board jumping to the checkpoint
+		stopRecording();
+		board.clear();
+		triggerhandler.clear();
+
+		IBoardLoader loader = new CheckpointLoader(path, board);
+
+		try {
+			loader.load(engine);
+			triggerhandler.addLinks(loader.getKeyUpTriggers(),
+					loader.getKeyDownTriggers());
+		} finally {
+			if (getIsRunning())
+				engine.initialise(board);
+
+			journal.compact();
+		}
+
+		this.setChanged();
+		this.notifyObservers(UpdateReason.BoardChanged);
+	}
+
+	/**
+	 * Starts recording the run into a replay file, and starts the engine
+	 * running if it isn't already. The recording stops when the engine does.
+	 * 
+	 * @param path The path to record to.
+	 * @throws IOException Thrown if there is an error writing to the file.
+	 */
+	public void startRecording(String path) throws IOException {
+		stopRecording();
+		recorder = new ReplayRecorder(path, engine, board, triggerhandler,
+				FRAMES_PER_SEC, REPLAY_KEYFRAME_SECONDS * FRAMES_PER_SEC);
+		triggerhandler.setRecorder(recorder);
+		startRunning();
+	}
+
+	/**
+	 * Stops recording a replay, if one is being recorded.
+	 */
+	public void stopRecording() {
+		if (recorder != null) {
+			triggerhandler.setRecorder(null);
+			recorder.close();
+			recorder = null;
+		}
+	}
+
+	/**
+	 * Gets whether a replay is being recorded.
+	 * 
+	 * @return True if a replay is being recorded; otherwise, false.
+	 */
+	public boolean getIsRecording() {
+		return recorder != null && recorder.isRecording();
+	}
+
+	/**
+	 * Puts the board as it was at a time in a replay. The engine is stopped
+	 * and the board can then be looked at, or run on from there.
+	 * 
+	 * @param path The replay file.
+	 * @param seconds The time into the replay.
+	 * @throws FileNotFoundException Thrown if the file is not found.
+	 * @throws IOException Thrown if there is a problem reading the file.
+	 * @throws BadFileException Thrown if the file format is invalid.
+	 */
+	public void seekReplay(String path, double seconds)
+			throws FileNotFoundException, IOException, BadFileException {
+		stopRunning();
+
+		ReplayPlayer player = new ReplayPlayer(path);
+		int frame = (int) Math.round(seconds * player.getFramesPerSecond());
+
+		try {
+			player.seek(Math.min(frame, player.getFrameCount()), engine,
+					board, triggerhandler);
+		} finally {
+			journal.compact();
+		}
+
+		this.setChanged();
+		this.notifyObservers(UpdateReason.BoardChanged);
+	}
+
+	/**
+	 * Toggles the run state of the engine.
+	 */
+	public void toggleRunState() {
+		if (this.getIsRunning())
+			stopRunning();
+		else
+			startRunning();
+	}
+
+	/**
+	 * Sets whether runs are deterministic. Every frame is always run as the
+	 * same step, however late the timer is. In deterministic mode keys are
+	 * also held until the next frame starts, so the same keys before the
+	 * same frames always give the same run.
+	 * 
+	 * @param deterministic - true to hold keys until the next frame.
+	 */
+	public void setDeterministic(boolean deterministic) {
+		this.deterministic = deterministic;
+		triggerhandler.setDeferred(deterministic && getIsRunning());
+	}
+
+	/**
+	 * Gets whether runs are deterministic.
+	 * 
+	 * @return True if keys are held until the next frame; otherwise, false.
+	 */
+	public boolean getIsDeterministic() {
+		return deterministic;
+	}
+
+	/**
+	 * Starts the engine running.
+	 */
+	public void startRunning() {
+		if (!this.getIsRunning()) {
+			engine.initialise(board);
+			triggerhandler.setDeferred(deterministic);
+			timer.start();
+			this.setChanged();
+			this.notifyObservers(UpdateReason.RunStateChanged);
+		}
+	}
+
+	/**
+	 * Stops the engine from running.
+	 */
+	public void stopRunning() {
+		if (this.getIsRunning()) {
+			timer.stop();
+			// keys held for the next frame are applied now
+			triggerhandler.setDeferred(false);
+			stopRecording();
+			// the balls and gizmos have moved in ways the journal doesn't record
+			journal.compact();
+			this.setChanged();
+			this.notifyObservers(UpdateReason.RunStateChanged);
+		}
+	}
+
+	/**
+	 * Gets the run state of the engine.
+	 * 
+	 * @return True if the engine is running; otherwise, false.
+	 */
+	public boolean getIsRunning() {
+		return timer.isRunning();
+	}
+
+	/**
+	 * Callback method for engine timer.
+	 */
+	@Override
+	public void actionPerformed(ActionEvent e) {
+		
+		// views drawing from another thread lock the board while they do so
+		synchronized (board) {
+			triggerhandler.applyPendingKeys();
+			engine.calculateState((double) 1 / FRAMES_PER_SEC);
+			stepCount++;
+		}
+
+		if (recorder != null)
+			recorder.frameRun();
+
+		this.setChanged();
+		this.notifyObservers(UpdateReason.BoardChanged);
+
+		// every view has now seen this frame's changes
+		synchronized (board) {
+			board.clearDirtyRegions();
+		}
+	}
+
+	/**
+	 * Gets the number of steps the engine has run. Another thread must lock
+	 * the board to read this.
+	 */
+	public long getStepCount() {
+		return stepCount;
+	}
+
+	/**
+	 * Gets the board instance.
+	 * 
+	 * @return
+	 */
+	public Board getBoard() {
+		return board;
+	}
+
+	public TriggerHandler getTriggerHandler() {
+		return triggerhandler;
+	}
+
+	/**
+	 * Gets the cache of boards loaded from text files.
+	 */
+	public BoardCache getBoardCache() {
+		return boardCache;
+	}
+
+	/**
+	 * Gets the journal which keeps a recoverable copy of the board, which
+	 * records nothing until it is opened.
+	 */
+	public BoardJournal getJournal() {
+		return journal;
+	}
+}
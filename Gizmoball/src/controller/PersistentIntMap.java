@@ -0,0 +1,116 @@
+package controller;
+
+/**
+ * An immutable map from int keys to values, stored as a treap. Putting a
+ * value returns a new map which shares every node with the old one apart
+ * from the O(log n) nodes on the path to the key, so keeping many versions
+ * of a large map only costs memory for what changed between them.
+ *
+ * Node priorities are a hash of the key rather than random, so the shape of
+ * the tree depends only on which keys are in it.
+ */
+final class PersistentIntMap<V> {
+
+	private static final PersistentIntMap<Object> EMPTY = new PersistentIntMap<Object>(null, 0);
+
+	private final Node<V> root;
+	private final int size;
+
+	private static final class Node<V> {
+		final int key, priority;
+		final V value;
+		final Node<V> left, right;
+
+		Node(int key, int priority, V value, Node<V> left, Node<V> right) {
+			this.key = key;
+			this.priority = priority;
+			this.value = value;
+			this.left = left;
+			this.right = right;
+		}
+	}
+
+	private PersistentIntMap(Node<V> root, int size) {
+		this.root = root;
+		this.size = size;
+	}
+
+	/**
+	 * Gets the empty map.
+	 */
+	@SuppressWarnings("unchecked")
+	static <V> PersistentIntMap<V> empty() {
+		return (PersistentIntMap<V>) EMPTY;
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the value for a key.
+	 *
+	 * @return The value, or null if the key isn't in the map.
+	 */
+	V get(int key) {
+		Node<V> node = root;
+
+		while (node != null) {
+			if (key < node.key)
+				node = node.left;
+			else if (key > node.key)
+				node = node.right;
+			else
+				return node.value;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Gets a map with a key set to a value, this map is not changed.
+	 */
+	PersistentIntMap<V> put(int key, V value) {
+		boolean added = get(key) == null;
+		return new PersistentIntMap<V>(insert(root, key, priority(key), value), added ? size + 1 : size);
+	}
+
+	private static <V> Node<V> insert(Node<V> node, int key, int priority, V value) {
+		if (node == null)
+			return new Node<V>(key, priority, value, null, null);
+
+		if (key == node.key)
+			return new Node<V>(key, node.priority, value, node.left, node.right);
+
+		if (key < node.key) {
+			Node<V> left = insert(node.left, key, priority, value);
+
+			// rotate right to keep the higher priority above
+			if (left.priority > node.priority)
+				return new Node<V>(left.key, left.priority, left.value, left.left,
+						new Node<V>(node.key, node.priority, node.value, left.right, node.right));
+
+			return new Node<V>(node.key, node.priority, node.value, left, node.right);
+		} else {
+			Node<V> right = insert(node.right, key, priority, value);
+
+			// rotate left to keep the higher priority above
+			if (right.priority > node.priority)
+				return new Node<V>(right.key, right.priority, right.value,
+						new Node<V>(node.key, node.priority, node.value, node.left, right.left), right.right);
+
+			return new Node<V>(node.key, node.priority, node.value, node.left, right);
+		}
+	}
+
+	/**
+	 * Mixes the bits of a key to give a well spread priority.
+	 */
+	private static int priority(int key) {
+		int h = key * 0x9E3779B9;
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		h ^= h >>> 13;
+		return h;
+	}
+}
@@ -1,143 +1,381 @@
-package controller;
-
-import java.awt.event.KeyAdapter;
-import java.awt.event.KeyEvent;
-import java.awt.event.KeyListener;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
-import model.IBoardItem;
-
-public class TriggerHandler extends KeyAdapter implements KeyListener {
-	
-	private Map<Integer, List<IBoardItem>> keyupTriggers;
-	private Map<Integer, List<IBoardItem>> keydownTriggers;
-
-	/**
-	 * Constructor to be used when a game is loaded from a file. 
-	 * 
-	 * @param keyupTriggers - the loaded keyupTriggers.
-	 * @param keydownTriggers - the loaded keydownTriggers.
-	 */
-	public TriggerHandler(Map<Integer, List<IBoardItem>> keyupTriggers,
-			Map<Integer, List<IBoardItem>> keydownTriggers) {
-		this.keyupTriggers = keyupTriggers;
-		this.keydownTriggers = keydownTriggers;
-	}
-
-	/**
-	 * Constructor for a new design mode game. 
-	 */
-	public TriggerHandler() {
-		keyupTriggers = new HashMap<Integer, List<IBoardItem>>();
-		keydownTriggers = new HashMap<Integer, List<IBoardItem>>();
-	}
-	
-	/**
-	 * Allows a set of keyupTriggers and keydownTriggers to be added 
-	 * to the handler.
-	 * 
-	 * @param keyupTriggers - the map of keyupTriggers.
-	 * @param keydownTriggers - the map of keydownTriggers.
-	 */
-	public void addLinks(Map<Integer, List<IBoardItem>> keyupTriggers,
-			Map<Integer, List<IBoardItem>> keydownTriggers){
-		this.keyupTriggers = keyupTriggers;
-		this.keydownTriggers = keydownTriggers;
-	}
-
-	@Override
-	/**
-	 * When a key is pressed, the map of keydownTriggers
-	 * is searched to see if it triggers a gizmo.
-	 */
-	public void keyPressed(KeyEvent e) {
-		int key = e.getKeyCode();
-
-		if (keydownTriggers.containsKey(key)) {
-			for (IBoardItem item : keydownTriggers.get(key)) {
-				item.doAction();
-			}
-		}
-	}
-
-	@Override
-	/**
-	 * When a key is released, the map of keyupTriggers
-	 * is searched to see if it triggers a gizmo.
-	 */
-	public void keyReleased(KeyEvent e) {
-		int key = e.getKeyCode();
-
-		if (keyupTriggers.containsKey(key)) {
-			for (IBoardItem item : keyupTriggers.get(key)) {
-				item.doAction();
-			}
-		}
-	}
-	
-	/**
-	 * Kept for backwards compatibility, should remove soon.
-	 * @param keyCode
-	 * @param gizmo
-	 */
-	public void addLink(Integer keyCode, IBoardItem gizmo) {
-		addLinkUp(keyCode, gizmo);
-		addLinkDown(keyCode, gizmo);
-	}
-
-	/**
-	 * Used to add a user made keyuplink to a gizmo. 
-	 * 
-	 * @param keyCode - the key the user pressed.
-	 * @param gizmo - the gizmo the user selected.
-	 */
-	public void addLinkUp(Integer keyCode, IBoardItem gizmo) {
-		if (!keyupTriggers.containsKey(keyCode)) {
-			keyupTriggers.put(keyCode, new ArrayList<IBoardItem>());
-		}
-		keyupTriggers.get(keyCode).add(gizmo);
-	}
-	
-	/**
-	 * Used to add a user made keydownLink to a gizmo.
-	 * 
-	 * @param keyCode - the key the user pressed.
-	 * @param gizmo - the gizmo the user selected. 
-	 */
-	public void addLinkDown(Integer keyCode, IBoardItem gizmo) {
-		if (!keydownTriggers.containsKey(keyCode)) {
-			keydownTriggers.put(keyCode, new ArrayList<IBoardItem>());
-		}
-		keydownTriggers.get(keyCode).add(gizmo);
-	}
-	
-	/**
-	 * Clears all triggers. 
-	 */
-	public void clear() {
-		keyupTriggers.clear();
-		keydownTriggers.clear();
-	}
-
-	/**
-	 * Gets the list of keyupTriggers. 
-	 * 
-	 * @return - the map representing the keyupTriggers. 
-	 */
-	public Map<Integer, List<IBoardItem>> getLinksUp() {
-		return keyupTriggers;
-	}
-	
-	/**
-	 * Gets the list of keydownTriggers.
-	 * 
-	 * @return - the map representing the keydownTriggers.
-	 */
-	public Map<Integer, List<IBoardItem>> getLinksDown() {
-		return keydownTriggers;
-	}
-
+package controller;
+
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.IBoardItem;
+import model.ReplayRecorder;
+
+public class TriggerHandler extends KeyAdapter implements KeyListener {
+	
+	// key codes below this are looked up in an array, the rest are searched for
+	private static final int TABLE_SIZE = 256;
+
+	private Map<Integer, List<IBoardItem>> keyupTriggers;
+	private Map<Integer, List<IBoardItem>> keydownTriggers;
+	// made from the maps when a key is first used after the links change
+	private KeyTable keyupTable;
+	private KeyTable keydownTable;
+	private ReplayRecorder recorder;
+	// keys waiting for the next step when keys are deferred, in order
+	private boolean deferred;
+	private int[] pendingKeys = new int[16];
+	private boolean[] pendingUp = new boolean[16];
+	private int pendingCount;
+
+	/**
+	 * Constructor to be used when a game is loaded from a file. 
+	 * 
+	 * @param keyupTriggers - the loaded keyupTriggers.
+	 * @param keydownTriggers - the loaded keydownTriggers.
+	 */
+	public TriggerHandler(Map<Integer, List<IBoardItem>> keyupTriggers,
+			Map<Integer, List<IBoardItem>> keydownTriggers) {
+		this.keyupTriggers = keyupTriggers;
+		this.keydownTriggers = keydownTriggers;
+	}
+
+	/**
+	 * Constructor for a new design mode game. 
+	 */
+	public TriggerHandler() {
+		keyupTriggers = new HashMap<Integer, List<IBoardItem>>();
+		keydownTriggers = new HashMap<Integer, List<IBoardItem>>();
+	}
+	
+	/**
+	 * Allows a set of keyupTriggers and keydownTriggers to be added 
+	 * to the handler.
+	 * 
+	 * @param keyupTriggers - the map of keyupTriggers.
+	 * @param keydownTriggers - the map of keydownTriggers.
+	 */
+	public void addLinks(Map<Integer, List<IBoardItem>> keyupTriggers,
+			Map<Integer, List<IBoardItem>> keydownTriggers){
+		this.keyupTriggers = keyupTriggers;
+		this.keydownTriggers = keydownTriggers;
+		linksChanged();
+	}
+
+	@Override
+	/**
+	 * When a key is pressed, the table of keydownTriggers
+	 * is looked in to see if it triggers a gizmo.
+	 */
+	public void keyPressed(KeyEvent e) {
+		if (deferred)
+			addPending(e.getKeyCode(), false);
+		else
+			keyDown(e.getKeyCode());
+	}
+
+	@Override
+	/**
+	 * When a key is released, the table of keyupTriggers
+	 * is looked in to see if it triggers a gizmo.
+	 */
+	public void keyReleased(KeyEvent e) {
+		if (deferred)
+			addPending(e.getKeyCode(), true);
+		else
+			keyUp(e.getKeyCode());
+	}
+
+	/**
+	 * Triggers the items linked to a key being pressed.
+	 * 
+	 * @param key - the key code.
+	 */
+	public void keyDown(int key) {
+		if (recorder != null)
+			recorder.keyPressed(key);
+
+		if (keydownTable == null)
+			keydownTable = new KeyTable(keydownTriggers);
+
+		doActions(keydownTable.get(key));
+	}
+
+	/**
+	 * Triggers the items linked to a key being released.
+	 * 
+	 * @param key - the key code.
+	 */
+	public void keyUp(int key) {
+		if (recorder != null)
+			recorder.keyReleased(key);
+
+		if (keyupTable == null)
+			keyupTable = new KeyTable(keyupTriggers);
+
+		doActions(keyupTable.get(key));
+	}
+
+	private static void doActions(IBoardItem[] items) {
+		if (items == null)
+			return;
+
+		for (int i = 0; i < items.length; i++)
+			items[i].doAction();
+	}
+
+	/**
+	 * Drops the tables, for them to be made again from the maps.
+	 */
+	private void linksChanged() {
+		keyupTable = null;
+		keydownTable = null;
+	}
+	
+	/**
+	 * Sets whether keys pressed and released are held until the next step,
+	 * rather than triggering items straight away. Keys being held are
+	 * applied when this is turned off.
+	 * 
+	 * @param deferred - true to hold keys until applyPendingKeys is called.
+	 */
+	public void setDeferred(boolean deferred) {
+		this.deferred = deferred;
+
+		if (!deferred)
+			applyPendingKeys();
+	}
+
+	/**
+	 * Triggers the items linked to the keys being held, in the order the
+	 * keys were pressed and released. This is called between steps.
+	 */
+	public void applyPendingKeys() {
+		for (int i = 0; i < pendingCount; i++) {
+			if (pendingUp[i])
+				keyUp(pendingKeys[i]);
+			else
+				keyDown(pendingKeys[i]);
+		}
+
+		pendingCount = 0;
+	}
+
+	/**
+	 * Holds a key until the next step, whether or not keys are deferred. A
+	 * press straight after a release of the same key cancels it, as that is
+	 * how a held key repeats.
+	 * 
+	 * @param key - the key code.
+	 * @param up - true if the key was released, false if it was pressed.
+	 */
+	public void queueKey(int key, boolean up) {
+		if (!up && pendingCount > 0 && pendingKeys[pendingCount - 1] == key && pendingUp[pendingCount - 1]) {
+			pendingCount--;
+			return;
+		}
+
+		addPending(key, up);
+	}
+
+	private void addPending(int key, boolean up) {
+		if (pendingCount == pendingKeys.length) {
+			pendingKeys = Arrays.copyOf(pendingKeys, pendingCount * 2);
+			pendingUp = Arrays.copyOf(pendingUp, pendingCount * 2);
+		}
+
+		pendingKeys[pendingCount] = key;
+		pendingUp[pendingCount] = up;
+		pendingCount++;
+	}
+
+	/**
+	 * Sets the recorder which is told about every key pressed and released.
+	 * 
+	 * @param recorder - the recorder, or null to stop telling one.
+	 */
+	public void setRecorder(ReplayRecorder recorder) {
+		this.recorder = recorder;
+	}
+	
+	/**
+	 * Kept for backwards compatibility, should remove soon.
+	 * @param keyCode
+	 * @param gizmo
+	 */
+	public void addLink(Integer keyCode, IBoardItem gizmo) {
+		addLinkUp(keyCode, gizmo);
+		addLinkDown(keyCode, gizmo);
+	}
+
+	/**
+	 * Used to add a user made keyuplink to a gizmo. 
+	 * 
+	 * @param keyCode - the key the user pressed.
+	 * @param gizmo - the gizmo the user selected.
+	 */
+	public void addLinkUp(Integer keyCode, IBoardItem gizmo) {
+		if (!keyupTriggers.containsKey(keyCode)) {
+			keyupTriggers.put(keyCode, new ArrayList<IBoardItem>());
+		}
+		keyupTriggers.get(keyCode).add(gizmo);
+		keyupTable = null;
+	}
+	
+	/**
+	 * Used to add a user made keydownLink to a gizmo.
+	 * 
+	 * @param keyCode - the key the user pressed.
+	 * @param gizmo - the gizmo the user selected. 
+	 */
+	public void addLinkDown(Integer keyCode, IBoardItem gizmo) {
+		if (!keydownTriggers.containsKey(keyCode)) {
+			keydownTriggers.put(keyCode, new ArrayList<IBoardItem>());
+		}
+		keydownTriggers.get(keyCode).add(gizmo);
+		keydownTable = null;
+	}
+	
+	/**
+	 * Removes every key link to an item.
+	 * 
+	 * @param item - the item to unlink.
+	 */
+	public void removeLinks(IBoardItem item) {
+		removeLinks(keyupTriggers, item);
+		removeLinks(keydownTriggers, item);
+		linksChanged();
+	}
+
+	/**
+	 * Gets the keys whose release triggers an item, a key appears once for
+	 * each time it is linked.
+	 * 
+	 * @param item - the item to look up.
+	 * @return - the key codes.
+	 */
+	public int[] getKeysUp(IBoardItem item) {
+		return getKeys(keyupTriggers, item);
+	}
+
+	/**
+	 * Gets the keys whose press triggers an item, a key appears once for
+	 * each time it is linked.
+	 * 
+	 * @param item - the item to look up.
+	 * @return - the key codes.
+	 */
+	public int[] getKeysDown(IBoardItem item) {
+		return getKeys(keydownTriggers, item);
+	}
+
+	private static void removeLinks(Map<Integer, List<IBoardItem>> triggers, IBoardItem item) {
+		for (List<IBoardItem> items : triggers.values()) {
+			// compare by identity and remove every occurrence
+			for (int i = items.size() - 1; i >= 0; i--) {
+				if (items.get(i) == item)
+					items.remove(i);
+			}
+		}
+	}
+
+	private static int[] getKeys(Map<Integer, List<IBoardItem>> triggers, IBoardItem item) {
+		List<Integer> keys = new ArrayList<Integer>();
+
+		for (Map.Entry<Integer, List<IBoardItem>> entry : triggers.entrySet()) {
+			for (IBoardItem linked : entry.getValue()) {
+				if (linked == item)
+					keys.add(entry.getKey());
+			}
+		}
+
+		int[] result = new int[keys.size()];
+
+		for (int i = 0; i < result.length; i++)
+			result[i] = keys.get(i);
+
+		return result;
+	}
+
+	/**
+	 * Clears all triggers, and any keys waiting for the next step. 
+	 */
+	public void clear() {
+		keyupTriggers.clear();
+		keydownTriggers.clear();
+		linksChanged();
+		pendingCount = 0;
+	}
+
+	/**
+	 * Gets the list of keyupTriggers. The map must only be changed through
+	 * the handler, as keys are looked up in a table made from it.
+	 * 
+	 * @return - the map representing the keyupTriggers. 
+	 */
+	public Map<Integer, List<IBoardItem>> getLinksUp() {
+		return keyupTriggers;
+	}
+	
+	/**
+	 * Gets the list of keydownTriggers. The map must only be changed through
+	 * the handler, as keys are looked up in a table made from it.
+	 * 
+	 * @return - the map representing the keydownTriggers.
+	 */
+	public Map<Integer, List<IBoardItem>> getLinksDown() {
+		return keydownTriggers;
+	}
+
+	/**
+	 * The items linked to each key, copied into arrays so that a key is
+	 * looked up without boxing its code, and its items are triggered
+	 * without an iterator. Most key codes are small and index an array
+	 * directly, any others are found by a binary search.
+	 */
+	private static class KeyTable {
+		private IBoardItem[][] small = new IBoardItem[TABLE_SIZE][];
+		private int[] largeKeys;
+		private IBoardItem[][] largeItems;
+
+		KeyTable(Map<Integer, List<IBoardItem>> triggers) {
+			int[] keys = new int[triggers.size()];
+			int largeCount = 0;
+
+			for (Map.Entry<Integer, List<IBoardItem>> entry : triggers.entrySet()) {
+				int key = entry.getKey();
+				List<IBoardItem> items = entry.getValue();
+
+				if (items.isEmpty())
+					continue;
+
+				if (key >= 0 && key < TABLE_SIZE)
+					small[key] = items.toArray(new IBoardItem[items.size()]);
+				else
+					keys[largeCount++] = key;
+			}
+
+			largeKeys = Arrays.copyOf(keys, largeCount);
+			Arrays.sort(largeKeys);
+			largeItems = new IBoardItem[largeCount][];
+
+			for (int i = 0; i < largeCount; i++) {
+				List<IBoardItem> items = triggers.get(largeKeys[i]);
+				largeItems[i] = items.toArray(new IBoardItem[items.size()]);
+			}
+		}
+
+		/**
+		 * Gets the items linked to a key, or null if there aren't any.
+		 */
+		IBoardItem[] get(int key) {
+			if (key >= 0 && key < TABLE_SIZE)
+				return small[key];
+
+			int index = Arrays.binarySearch(largeKeys, key);
+			return index >= 0 ? largeItems[index] : null;
+		}
+	}
+
 }
\ No newline at end of file
@@ -1,10 +1,10 @@
-package exceptions;
-
-@SuppressWarnings("serial")
-public class BadFileException extends Exception {
-
-	public BadFileException(String err) {
-		super(err);
-	}
-
+package exceptions;
+
+@SuppressWarnings("serial")
+public class BadFileException extends Exception {
+
+	public BadFileException(String err) {
+		super(err);
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,161 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Divides the board into coarse square buckets and records which balls have
+ * their centre in each bucket, so the ball in a cell can be found without
+ * looking at every ball. Balls only change bucket when they cross a bucket
+ * edge, which keeps the cost of tracking them while running low.
+ */
+class BallIndex {
+	// the width and height of a bucket in board units
+	static final int BUCKET_SIZE = 4;
+
+	private List<Ball>[] buckets;
+	private int columns, rows;
+	private Map<Ball, Entry> entries;
+	private int nextOrder;
+
+	/**
+	 * What the index knows about a ball.
+	 */
+	private static class Entry {
+		int bucket;
+		int order;
+	}
+
+	/**
+	 * Creates an empty index.
+	 *
+	 * @param width - the width of the board.
+	 * @param height - the height of the board.
+	 */
+	BallIndex(int width, int height) {
+		entries = new IdentityHashMap<Ball, Entry>();
+		resize(width, height);
+	}
+
+	/**
+	 * Changes the size of the area covered, the balls already in the index
+	 * are kept.
+	 */
+	@SuppressWarnings("unchecked")
+	void resize(int width, int height) {
+		columns = Math.max(1, (width + BUCKET_SIZE - 1) / BUCKET_SIZE);
+		rows = Math.max(1, (height + BUCKET_SIZE - 1) / BUCKET_SIZE);
+		buckets = (List<Ball>[]) new List<?>[columns * rows];
+
+		for (Map.Entry<Ball, Entry> entry : entries.entrySet())
+			insert(entry.getKey(), entry.getValue());
+	}
+
+	void add(Ball ball) {
+		Entry entry = new Entry();
+		entry.order = nextOrder++;
+		entries.put(ball, entry);
+		insert(ball, entry);
+	}
+
+	void remove(Ball ball) {
+		Entry entry = entries.remove(ball);
+
+		if (entry != null)
+			buckets[entry.bucket].remove(ball);
+	}
+
+	/**
+	 * Updates the index after a ball has moved.
+	 */
+	void update(Ball ball) {
+		Entry entry = entries.get(ball);
+
+		if (entry != null && entry.bucket != getBucket(ball.getX(), ball.getY())) {
+			buckets[entry.bucket].remove(ball);
+			insert(ball, entry);
+		}
+	}
+
+	void clear() {
+		entries.clear();
+		nextOrder = 0;
+
+		for (int i = 0; i < buckets.length; i++)
+			buckets[i] = null;
+	}
+
+	/**
+	 * Gets the ball whose centre is in a cell. If there are several the
+	 * earliest added is returned.
+	 *
+	 * @return The ball, or null if there isn't one.
+	 */
+	Ball get(int x, int y) {
+		List<Ball> bucket = buckets[getBucket(x, y)];
+		Ball found = null;
+
+		if (bucket == null)
+			return null;
+
+		for (int i = 0; i < bucket.size(); i++) {
+			Ball ball = bucket.get(i);
+
+			if (ball.getX() >= x && ball.getX() < x + 1
+					&& ball.getY() >= y && ball.getY() < y + 1
+					&& (found == null || entries.get(ball).order < entries.get(found).order))
+				found = ball;
+		}
+
+		return found;
+	}
+
+	/**
+	 * Checks whether any ball has its centre in a rectangle of cells.
+	 */
+	boolean isClear(int x, int y, int w, int h) {
+		int first = getBucket(x, y), last = getBucket(x + w - 1, y + h - 1);
+		int firstCol = first % columns, lastCol = last % columns;
+
+		for (int row = first / columns; row <= last / columns; row++) {
+			for (int col = firstCol; col <= lastCol; col++) {
+				List<Ball> bucket = buckets[row * columns + col];
+
+				if (bucket == null)
+					continue;
+
+				for (int i = 0; i < bucket.size(); i++) {
+					Ball ball = bucket.get(i);
+
+					if (ball.getX() >= x && ball.getX() < x + w
+							&& ball.getY() >= y && ball.getY() < y + h)
+						return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	private void insert(Ball ball, Entry entry) {
+		entry.bucket = getBucket(ball.getX(), ball.getY());
+
+		if (buckets[entry.bucket] == null)
+			buckets[entry.bucket] = new ArrayList<Ball>(2);
+
+		buckets[entry.bucket].add(ball);
+	}
+
+	/**
+	 * Gets the bucket containing a point, points outside the board are put
+	 * in the nearest edge bucket.
+	 */
+	private int getBucket(double x, double y) {
+		int col = Math.max(0, Math.min((int) Math.floor(x / BUCKET_SIZE), columns - 1));
+		int row = Math.max(0, Math.min((int) Math.floor(y / BUCKET_SIZE), rows - 1));
+
+		return row * columns + col;
+	}
+}
@@ -0,0 +1,263 @@
+package model;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import model.gizmos.AbsorberGizmo;
+import model.gizmos.AcceleratorGizmo;
+import model.gizmos.CircleBumper;
+import model.gizmos.GateGizmo;
+import model.gizmos.IGizmo;
+import model.gizmos.LeftFlipper;
+import model.gizmos.MultiballGizmo;
+import model.gizmos.PortalGizmo;
+import model.gizmos.RightFlipper;
+import model.gizmos.SpinnerGizmo;
+import model.gizmos.SquareBumper;
+import model.gizmos.TriangleBumper;
+
+/* BINARY BOARD FORMAT
+
+ All values are big endian.
+
+ <file> ::= <header> <ball>* <gizmo>* <connection>* <key-link>* <name>*
+
+ <header> (48 bytes) ::= MAGIC:int VERSION:int gravity:double friction1:double
+ friction2:double gizmoCount:int ballCount:int connectionCount:int keyLinkCount:int
+
+ <ball> (48 bytes) ::= x:double y:double vx:double vy:double radius:double mass:double
+
+ <gizmo> (20 bytes) ::= type:byte orientation:byte 0:short x:int y:int width:int height:int
+
+ <connection> (8 bytes) ::= from:int to:int
+
+ <key-link> (12 bytes) ::= key:int item:int up:int
+
+ <name> ::= length:unsigned-short ASCII-characters
+
+ Items are numbered with the gizmos first, in file order, then the balls.
+ Connections and key links refer to items by number. There is one name for
+ each item, in the same order, which is the name Saver would give it in the
+ text format. Loading never reads the names; they let tools report an item
+ by the name it would have as text.
+
+ CHECKPOINTS
+
+ A checkpoint is a board in the binary format together with the state which
+ changes while it runs, so that a run can be carried on from exactly where
+ it was saved.
+
+ <checkpoint> ::= CHECKPOINT_MAGIC:int CHECKPOINT_VERSION:int boardSize:int
+ <file> <gizmo-state>* <ball-state>* <absorber-state>*
+
+ <gizmo-state> (24 bytes) ::= flags:int 0:int angle:double angularMomentum:double
+
+ <ball-state> (4 bytes) ::= flags:int
+
+ <absorber-state> ::= ejecting:int count:int ball:int*
+
+ The board file takes boardSize bytes, and ball positions and velocities are
+ kept in it. There is a gizmo state for each gizmo and a ball state for each
+ ball, in item order. The TRIGGERED flag is an item's triggered state and
+ the CAPTURED flag marks a ball held by an absorber. The angle and angular
+ momentum are those of a flipper or spinner, and 0 for other gizmos. Each
+ absorber, in item order, lists the item numbers of the balls it holds in
+ the order they will be fired, and of the ball it is firing, or -1.
+
+ REPLAYS
+
+ A replay records a run as checkpoints, called keyframes, taken every so
+ many frames, and the keys pressed and released in between. Frames are
+ counted from the first keyframe, which is the board the run started from.
+
+ <replay> ::= REPLAY_MAGIC:int REPLAY_VERSION:int framesPerSecond:int
+ keyframeInterval:int <record>* [<index>]
+
+ <record> ::= KEYFRAME:int frame:int size:int <checkpoint>
+            | KEY_DOWN:int frame:int key:int
+            | KEY_UP:int frame:int key:int
+
+ <index> ::= INDEX:int frameCount:int keyframeCount:int <keyframe-entry>*
+ indexAt:long REPLAY_MAGIC:int
+
+ <keyframe-entry> (12 bytes) ::= frame:int at:long
+
+ Records are in the order they happened. A keyframe is taken after its
+ frame has been run, and keys recorded with the same frame were pressed or
+ released after that, before the next frame ran. The index is written when
+ the recording stops and gives where each keyframe starts in the file and
+ where the index itself starts. If a recording was never stopped there is
+ no index, and the records are read up to the last whole one instead.
+
+ */
+final class BinaryBoardFormat {
+
+	static final int MAGIC = 0x475A4242; // "GZBB"
+	static final int VERSION = 1;
+
+	static final int HEADER_SIZE = 48;
+	static final int BALL_SIZE = 48;
+	static final int GIZMO_SIZE = 20;
+	static final int CONNECTION_SIZE = 8;
+	static final int KEY_LINK_SIZE = 12;
+
+	static final int CHECKPOINT_MAGIC = 0x475A4350; // "GZCP"
+	static final int CHECKPOINT_VERSION = 1;
+
+	static final int CHECKPOINT_HEADER_SIZE = 12;
+	static final int GIZMO_STATE_SIZE = 24;
+	static final int BALL_STATE_SIZE = 4;
+
+	static final int TRIGGERED = 1, CAPTURED = 2;
+
+	static final int REPLAY_MAGIC = 0x475A5250; // "GZRP"
+	static final int REPLAY_VERSION = 1;
+
+	static final int REPLAY_HEADER_SIZE = 16;
+	static final int RECORD_HEADER_SIZE = 12;
+	static final int KEYFRAME_ENTRY_SIZE = 12;
+	static final int INDEX_TRAILER_SIZE = 12;
+
+	static final int KEYFRAME = 1, KEY_DOWN = 2, KEY_UP = 3, INDEX = 4;
+
+	static final int SQUARE = 0, CIRCLE = 1, TRIANGLE = 2, RIGHT_FLIPPER = 3, LEFT_FLIPPER = 4,
+			ABSORBER = 5, ACCELERATOR = 6, PORTAL = 7, MULTIBALL = 8, GATE = 9, SPINNER = 10;
+
+	// the names of the gizmo types in the text format, by type number
+	static final String[] TYPE_NAMES = { "Square", "Circle", "Triangle", "RightFlipper",
+			"LeftFlipper", "Absorber", "Accelerator", "Portal", "Multiball", "Gate", "Spinner" };
+
+	private BinaryBoardFormat() {
+	}
+
+	/**
+	 * Checks whether a file starts with the binary format's magic number.
+	 */
+	static boolean isBinaryFile(String fileName) throws IOException {
+		return readMagic(fileName) == MAGIC;
+	}
+
+	/**
+	 * Checks whether a file starts with the magic number of a checkpoint.
+	 */
+	static boolean isCheckpointFile(String fileName) throws IOException {
+		return readMagic(fileName) == CHECKPOINT_MAGIC;
+	}
+
+	/**
+	 * Checks whether a file starts with the magic number of a replay.
+	 */
+	static boolean isReplayFile(String fileName) throws IOException {
+		return readMagic(fileName) == REPLAY_MAGIC;
+	}
+
+	/**
+	 * Reads the first four bytes of a file as a number, or 0 if the file is
+	 * shorter than that. A compressed file's bytes are read once decompressed.
+	 */
+	private static int readMagic(String fileName) throws IOException {
+		InputStream input = CompressedFiles.openInput(fileName);
+
+		try {
+			int magic = 0;
+
+			for (int i = 0; i < 4; i++) {
+				int b = input.read();
+
+				if (b < 0)
+					return 0;
+
+				magic = (magic << 8) | b;
+			}
+
+			return magic;
+		} finally {
+			input.close();
+		}
+	}
+
+	/**
+	 * Gets the type number of a gizmo.
+	 */
+	static int typeOf(IGizmo gizmo) {
+		switch (gizmo.getType()) {
+		case SquareBumper:
+			return SQUARE;
+
+		case CircleBumper:
+			return CIRCLE;
+
+		case TriangleBumper:
+			return TRIANGLE;
+
+		case Flipper:
+			return gizmo instanceof RightFlipper ? RIGHT_FLIPPER : LEFT_FLIPPER;
+
+		case Absorber:
+			return ABSORBER;
+
+		case AcceleratorGizmo:
+			return ACCELERATOR;
+
+		case PortalGizmo:
+			return PORTAL;
+
+		case MultiballGizmo:
+			return MULTIBALL;
+
+		case GateGizmo:
+			return GATE;
+
+		case SpinnerGizmo:
+			return SPINNER;
+
+		default:
+			throw new IllegalStateException(String.format("Unknown gizmo type '%s'.", gizmo.getType()));
+		}
+	}
+
+	/**
+	 * Creates a gizmo from a gizmo record.
+	 *
+	 * @return The gizmo, or null if the type number is unknown.
+	 */
+	static IGizmo create(int type, int x, int y, int width, int height, Board board) {
+		switch (type) {
+		case SQUARE:
+			return new SquareBumper(x, y);
+
+		case CIRCLE:
+			return new CircleBumper(x, y);
+
+		case TRIANGLE:
+			return new TriangleBumper(x, y, 0);
+
+		case RIGHT_FLIPPER:
+			return new RightFlipper(x, y);
+
+		case LEFT_FLIPPER:
+			return new LeftFlipper(x, y);
+
+		case ABSORBER:
+			return new AbsorberGizmo(x, y, x + width, y + height);
+
+		case ACCELERATOR:
+			return new AcceleratorGizmo(x, y);
+
+		case PORTAL:
+			return new PortalGizmo(x, y);
+
+		case MULTIBALL:
+			return new MultiballGizmo(x, y, board);
+
+		case GATE:
+			return new GateGizmo(x, y);
+
+		case SPINNER:
+			return new SpinnerGizmo(x, y);
+
+		default:
+			return null;
+		}
+	}
+}
@@ -0,0 +1,180 @@
+package model;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.gizmos.IGizmo;
+import exceptions.BadFileException;
+
+/**
+ * Loads a board saved in the binary format described in BinaryBoardFormat.
+ * The file is mapped into memory and each fixed size record is read where it
+ * lies, so nothing is copied or parsed apart from the values themselves.
+ */
+public class BinaryLoader implements IBoardLoader {
+
+	private RandomAccessFile file;
+	private Map<Integer, List<IBoardItem>> keyupTriggers;
+	private Map<Integer, List<IBoardItem>> keydownTriggers;
+	private Board board;
+	private ILoadProgressListener listener;
+
+	public BinaryLoader(String fileName, Board board) throws FileNotFoundException {
+		this(board);
+		CompressedFiles.await(fileName);
+		file = new RandomAccessFile(fileName, "r");
+	}
+
+	/**
+	 * Creates a loader for a board which is already in memory, read with read.
+	 */
+	BinaryLoader(Board board) {
+		this.board = board;
+
+		keyupTriggers = new HashMap<Integer, List<IBoardItem>>();
+		keydownTriggers = new HashMap<Integer, List<IBoardItem>>();
+	}
+
+	/**
+	 * Checks whether a file is in the binary format, from its magic number.
+	 *
+	 * @param fileName - the file to check.
+	 * @throws IOException Thrown if there is a problem reading the file.
+	 */
+	public static boolean isBinaryFile(String fileName) throws IOException {
+		return BinaryBoardFormat.isBinaryFile(fileName);
+	}
+
+	public void setLoadProgressListener(ILoadProgressListener listener) {
+		this.listener = listener;
+	}
+
+	public void load(IPhysicsEngine engine) throws BadFileException, IOException {
+		FileChannel channel = file.getChannel();
+
+		try {
+			ByteBuffer buffer = CompressedFiles.read(channel);
+			List<IBoardItem> items = Arrays.asList(read(buffer, engine));
+
+			//load the items into the board as one change
+			if (listener == null)
+				board.addAll(items);
+			else
+				listener.loadProgressed(items, 1, 1);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Reads a board from a buffer holding the whole file, setting up the
+	 * engine and the key triggers, without adding the items to the board.
+	 *
+	 * @return The items, gizmos first and then balls, in file order.
+	 */
+	IBoardItem[] read(ByteBuffer buffer, IPhysicsEngine engine) throws BadFileException {
+		if (buffer.capacity() < 8 || buffer.getInt(0) != BinaryBoardFormat.MAGIC)
+			throw new BadFileException("not a binary board file");
+
+		int version = buffer.getInt(4);
+
+		if (version != BinaryBoardFormat.VERSION)
+			throw new BadFileException("unsupported binary board version " + version);
+
+		if (buffer.capacity() < BinaryBoardFormat.HEADER_SIZE)
+			throw new BadFileException("binary board file is truncated");
+
+		int gizmoCount = buffer.getInt(32);
+		int ballCount = buffer.getInt(36);
+		int connectionCount = buffer.getInt(40);
+		int keyLinkCount = buffer.getInt(44);
+
+		if (gizmoCount < 0 || ballCount < 0 || connectionCount < 0 || keyLinkCount < 0)
+			throw new BadFileException("invalid binary board header");
+
+		int ballsAt = BinaryBoardFormat.HEADER_SIZE;
+		long gizmosAt = ballsAt + (long) ballCount * BinaryBoardFormat.BALL_SIZE;
+		long connectionsAt = gizmosAt + (long) gizmoCount * BinaryBoardFormat.GIZMO_SIZE;
+		long keyLinksAt = connectionsAt + (long) connectionCount * BinaryBoardFormat.CONNECTION_SIZE;
+		long end = keyLinksAt + (long) keyLinkCount * BinaryBoardFormat.KEY_LINK_SIZE;
+
+		if (end > buffer.capacity())
+			throw new BadFileException("binary board file is truncated");
+
+		IBoardItem[] items = new IBoardItem[gizmoCount + ballCount];
+
+		for (int i = 0; i < gizmoCount; i++) {
+			int at = (int) gizmosAt + i * BinaryBoardFormat.GIZMO_SIZE;
+			int type = buffer.get(at);
+			int orientation = buffer.get(at + 1);
+			IGizmo gizmo = BinaryBoardFormat.create(type, buffer.getInt(at + 4), buffer.getInt(at + 8),
+					buffer.getInt(at + 12), buffer.getInt(at + 16), board);
+
+			if (gizmo == null)
+				throw new BadFileException("invalid gizmo type " + type);
+
+			for (int j = 0; j < 4 && gizmo.canRotate() && gizmo.getOrientation() != orientation; j++)
+				gizmo.rotate();
+
+			items[i] = gizmo;
+		}
+
+		for (int i = 0; i < ballCount; i++) {
+			int at = ballsAt + i * BinaryBoardFormat.BALL_SIZE;
+			items[gizmoCount + i] = new Ball(buffer.getDouble(at), buffer.getDouble(at + 8),
+					buffer.getDouble(at + 32), buffer.getDouble(at + 40),
+					buffer.getDouble(at + 16), buffer.getDouble(at + 24));
+		}
+
+		for (int i = 0; i < connectionCount; i++) {
+			int at = (int) connectionsAt + i * BinaryBoardFormat.CONNECTION_SIZE;
+			getItem(items, buffer.getInt(at)).connect(getItem(items, buffer.getInt(at + 4)));
+		}
+
+		for (int i = 0; i < keyLinkCount; i++) {
+			int at = (int) keyLinksAt + i * BinaryBoardFormat.KEY_LINK_SIZE;
+			int key = buffer.getInt(at);
+			IBoardItem item = getItem(items, buffer.getInt(at + 4));
+
+			addTrigger(buffer.getInt(at + 8) != 0 ? keyupTriggers : keydownTriggers, key, item);
+		}
+
+		engine.setGravity(buffer.getDouble(8));
+		engine.setFriction(buffer.getDouble(16), buffer.getDouble(24));
+		return items;
+	}
+
+	public Map<Integer, List<IBoardItem>> getKeyUpTriggers() {
+		return keyupTriggers;
+	}
+
+	public Map<Integer, List<IBoardItem>> getKeyDownTriggers() {
+		return keydownTriggers;
+	}
+
+	private IBoardItem getItem(IBoardItem[] items, int index) throws BadFileException {
+		if (index < 0 || index >= items.length)
+			throw new BadFileException("invalid item number " + index);
+
+		return items[index];
+	}
+
+	private void addTrigger(Map<Integer, List<IBoardItem>> triggers, int key, IBoardItem item) {
+		List<IBoardItem> items = triggers.get(key);
+
+		if (items == null) {
+			items = new ArrayList<IBoardItem>();
+			triggers.put(key, items);
+		}
+
+		items.add(item);
+	}
+}
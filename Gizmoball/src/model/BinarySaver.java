@@ -0,0 +1,156 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.gizmos.IGizmo;
+import controller.TriggerHandler;
+
+/**
+ * Saves a board in the binary format described in BinaryBoardFormat. Items
+ * are named the same way Saver names them.
+ */
+public class BinarySaver {
+
+	private String fileName;
+	private Map<IBoardItem, Integer> numbers;
+	private List<String> names;
+
+	public BinarySaver(String fileName) {
+		this.fileName = fileName;
+		numbers = new IdentityHashMap<IBoardItem, Integer>();
+		names = new ArrayList<String>();
+	}
+
+	public void save(IPhysicsEngine engine, Board board, TriggerHandler triggerhandler) throws IOException {
+		ByteBuffer buffer = write(engine, board, triggerhandler);
+		GatheringByteChannel channel = CompressedFiles.openOutput(fileName);
+
+		try {
+			while (buffer.hasRemaining())
+				channel.write(buffer);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Writes a board into a new buffer, which is ready to be read.
+	 */
+	ByteBuffer write(IPhysicsEngine engine, Board board, TriggerHandler triggerhandler) {
+		List<IGizmo> gizmos = board.getGizmos();
+		List<Ball> balls = board.getBalls();
+
+		// Saver names the items in this order, and counts every item
+		int count = 0;
+
+		for (IGizmo gizmo : gizmos)
+			number(gizmo, BinaryBoardFormat.TYPE_NAMES[BinaryBoardFormat.typeOf(gizmo)] + count++);
+
+		for (Ball ball : balls)
+			number(ball, "ball" + count++);
+
+		List<int[]> connections = new ArrayList<int[]>();
+
+		for (IGizmo gizmo : gizmos) {
+			for (IBoardItem item : gizmo.getConnectedItems()) {
+				if (numbers.containsKey(item))
+					connections.add(new int[] { numbers.get(gizmo), numbers.get(item) });
+			}
+		}
+
+		List<int[]> keyLinks = new ArrayList<int[]>();
+		addKeyLinks(keyLinks, triggerhandler.getLinksDown(), 0);
+		addKeyLinks(keyLinks, triggerhandler.getLinksUp(), 1);
+
+		int namesSize = 0;
+
+		for (String name : names)
+			namesSize += 2 + name.length();
+
+		ByteBuffer buffer = ByteBuffer.allocate(BinaryBoardFormat.HEADER_SIZE
+				+ balls.size() * BinaryBoardFormat.BALL_SIZE
+				+ gizmos.size() * BinaryBoardFormat.GIZMO_SIZE
+				+ connections.size() * BinaryBoardFormat.CONNECTION_SIZE
+				+ keyLinks.size() * BinaryBoardFormat.KEY_LINK_SIZE
+				+ namesSize);
+
+		buffer.putInt(BinaryBoardFormat.MAGIC);
+		buffer.putInt(BinaryBoardFormat.VERSION);
+		buffer.putDouble(engine.getGravity());
+		buffer.putDouble(engine.getFriction1());
+		buffer.putDouble(engine.getFriction2());
+		buffer.putInt(gizmos.size());
+		buffer.putInt(balls.size());
+		buffer.putInt(connections.size());
+		buffer.putInt(keyLinks.size());
+
+		for (Ball ball : balls) {
+			buffer.putDouble(ball.getX());
+			buffer.putDouble(ball.getY());
+			buffer.putDouble(ball.getXVelocity());
+			buffer.putDouble(ball.getYVelocity());
+			buffer.putDouble(ball.getRadius());
+			buffer.putDouble(ball.getMass());
+		}
+
+		for (IGizmo gizmo : gizmos) {
+			buffer.put((byte) BinaryBoardFormat.typeOf(gizmo));
+			buffer.put((byte) gizmo.getOrientation());
+			buffer.putShort((short) 0);
+			buffer.putInt(gizmo.getX());
+			buffer.putInt(gizmo.getY());
+			buffer.putInt(gizmo.getWidth());
+			buffer.putInt(gizmo.getHeight());
+		}
+
+		for (int[] connection : connections) {
+			buffer.putInt(connection[0]);
+			buffer.putInt(connection[1]);
+		}
+
+		for (int[] keyLink : keyLinks) {
+			buffer.putInt(keyLink[0]);
+			buffer.putInt(keyLink[1]);
+			buffer.putInt(keyLink[2]);
+		}
+
+		for (String name : names) {
+			buffer.putShort((short) name.length());
+
+			for (int i = 0; i < name.length(); i++)
+				buffer.put((byte) name.charAt(i));
+		}
+
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * Gets the number an item was given by write, or -1 if it wasn't on the board.
+	 */
+	int numberOf(IBoardItem item) {
+		Integer number = numbers.get(item);
+		return number == null ? -1 : number;
+	}
+
+	private void number(IBoardItem item, String name) {
+		numbers.put(item, names.size());
+		names.add(name);
+	}
+
+	private void addKeyLinks(List<int[]> keyLinks, Map<Integer, List<IBoardItem>> links, int up) {
+		for (Map.Entry<Integer, List<IBoardItem>> entry : links.entrySet()) {
+			for (IBoardItem item : entry.getValue()) {
+				// links to items no longer on the board aren't saved
+				if (numbers.containsKey(item))
+					keyLinks.add(new int[] { entry.getKey(), numbers.get(item), up });
+			}
+		}
+	}
+}
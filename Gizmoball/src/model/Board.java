@@ -1,100 +1,471 @@
-package model;
-
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Observable;
-
-import model.gizmos.IGizmo;
-
-public class Board extends Observable {
-	
-	private List<IGizmo> gizmos;
-	private List<Ball> balls;
-	private int width, height;
-	private boolean runMode;
-
-	/**
-	 * Constructs a new board.
-	 * 
-	 * @param width - the width of the board.
-	 * @param height - the height of the board. 
-	 */
-	public Board(int width, int height) {
-		gizmos = new ArrayList<IGizmo>();
-		balls = new ArrayList<Ball>();
-		runMode = false;
-
-		this.width = width;
-		this.height = height;
-	}
-
-	public int getWidth() {
-		return width;
-	}
-
-	public int getHeight() {
-		return height;
-	}
-
-	public List<IGizmo> getGizmos() {
-		return gizmos;
-	}
-
-	public List<Ball> getBalls() {
-		return balls;
-	}
-
-	public void addGizmo(IGizmo gizmo) {
-		gizmos.add(gizmo);
-		this.setChanged();
-		this.notifyObservers(gizmo);
-	}
-
-	public void removeGizmo(IGizmo gizmo) {
-		gizmos.remove(gizmo);
-		this.setChanged();
-		this.notifyObservers(gizmo);
-	}
-
-	public void addBall(Ball ball) {
-		balls.add(ball);
-		this.setChanged();
-		this.notifyObservers(ball);
-	}
-
-	public void removeBall(Ball ball) {
-		balls.remove(ball);
-		this.setChanged();
-		this.notifyObservers();
-	}
-
-	public IGizmo getGizmoAt(int x, int y) {
-		for (IGizmo gizmo : gizmos) {
-			if (x >= gizmo.getX() && x < gizmo.getX() + gizmo.getWidth()
-					&& y >= gizmo.getY()
-					&& y < gizmo.getY() + gizmo.getHeight()) {
-				return gizmo;
-			}
-		}
-
-		return null;
-	}
-
-	public Ball getBallAt(int x, int y) {
-
-		for (Ball ball : balls) {
-			if ((ball.getX() >= x && ball.getX() < x + 1)
-					&& (ball.getY() >= y && ball.getY() < y + 1)) {
-				return ball;
-			}
-		}
-
-		return null;
-	}
-
-	public void runMode() {
-		runMode = !runMode;
-		this.setChanged();
-		this.notifyObservers(runMode);
-	}
-}
+package model;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Observable;
+import java.util.Observer;
+
+import model.gizmos.IGizmo;
+
+public class Board extends Observable implements Observer {
+	
+	// the most separate rectangles the dirty region is kept as
+	private static final int MAX_DIRTY_REGIONS = 8;
+
+	// these can be iterated from the render thread while being changed, but
+	// the indexes and the items' positions can't, so a thread other than the
+	// event queue locks the board while it reads them and the simulation
+	// locks it while it steps
+	private SnapshotList<IGizmo> gizmos;
+	private SnapshotList<Ball> balls;
+	private int width, height;
+	private boolean runMode;
+	private List<Rectangle2D.Double> dirtyRegions;
+	private Map<Ball, Rectangle2D.Double> ballBounds;
+	private SpatialIndex gizmoIndex;
+	private BallIndex ballIndex;
+	// the number of unfinished batches of changes, and what they've done
+	private int updateDepth;
+	private boolean batchChanged;
+	private List<IBoardItem> batchAdded;
+
+	/**
+	 * Constructs a new board.
+	 * 
+	 * @param width - the width of the board.
+	 * @param height - the height of the board. 
+	 */
+	public Board(int width, int height) {
+		gizmos = new SnapshotList<IGizmo>();
+		balls = new SnapshotList<Ball>();
+		ballBounds = new HashMap<Ball, Rectangle2D.Double>();
+		dirtyRegions = new ArrayList<Rectangle2D.Double>(MAX_DIRTY_REGIONS);
+		gizmoIndex = new SpatialIndex(width, height);
+		ballIndex = new BallIndex(width, height);
+		runMode = false;
+
+		this.width = width;
+		this.height = height;
+	}
+
+	/**
+	 * Changes the size of the board. Items already on the board are kept,
+	 * even if they now lie outside it.
+	 * 
+	 * @param width - the new width of the board.
+	 * @param height - the new height of the board.
+	 */
+	public void setSize(int width, int height) {
+		this.width = width;
+		this.height = height;
+		gizmoIndex.resize(width, height);
+		ballIndex.resize(width, height);
+		markDirty(0, 0, width, height);
+		changed(null);
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Gets the gizmos on the board. This is a snapshot which won't change
+	 * if the board does, so it can be iterated from any thread while the
+	 * board is being changed. It can't be modified.
+	 */
+	public List<IGizmo> getGizmos() {
+		return gizmos.snapshot();
+	}
+
+	/**
+	 * Gets the balls on the board. As with getGizmos this is an unmodifiable
+	 * snapshot which is safe to iterate from any thread.
+	 */
+	public List<Ball> getBalls() {
+		return balls.snapshot();
+	}
+
+	public void addGizmo(IGizmo gizmo) {
+		gizmos.add(gizmo);
+		gizmoIndex.add(gizmo);
+		observe(gizmo);
+		markDirty(gizmo);
+		itemAdded(gizmo);
+	}
+
+	public void removeGizmo(IGizmo gizmo) {
+		gizmos.remove(gizmo);
+		gizmoIndex.remove(gizmo);
+		ignore(gizmo);
+		markDirty(gizmo);
+		changed(gizmo);
+	}
+
+	/**
+	 * Moves a gizmo which is on the board. Gizmos should be moved through
+	 * this rather than directly so the board can keep track of them.
+	 * 
+	 * @param gizmo - the gizmo to move.
+	 * @param x - the new x position.
+	 * @param y - the new y position.
+	 */
+	public void moveGizmo(IGizmo gizmo, int x, int y) {
+		markDirty(gizmo);
+		gizmo.move(x, y);
+		gizmoIndex.update(gizmo);
+		markDirty(gizmo);
+		changed(gizmo);
+	}
+
+	/**
+	 * Rotates a gizmo which is on the board by 90 degrees clockwise.
+	 * 
+	 * @param gizmo - the gizmo to rotate.
+	 */
+	public void rotateGizmo(IGizmo gizmo) {
+		gizmo.rotate();
+		gizmoIndex.update(gizmo);
+		markDirty(gizmo);
+		changed(gizmo);
+	}
+
+	/**
+	 * Removes every gizmo and ball from the board.
+	 */
+	public void clear() {
+		for (IGizmo gizmo : gizmos.snapshot())
+			ignore(gizmo);
+
+		for (Ball ball : balls.snapshot())
+			ball.deleteObserver(this);
+
+		gizmos.clear();
+		balls.clear();
+		ballBounds.clear();
+		gizmoIndex.clear();
+		ballIndex.clear();
+		markDirty(0, 0, width, height);
+		changed(null);
+	}
+
+	public void addBall(Ball ball) {
+		balls.add(ball);
+		ballIndex.add(ball);
+		ball.addObserver(this);
+		ballBounds.put(ball, getBounds(ball));
+		markDirty(ballBounds.get(ball));
+		itemAdded(ball);
+	}
+
+	public void removeBall(Ball ball) {
+		balls.remove(ball);
+		ballIndex.remove(ball);
+		ball.deleteObserver(this);
+		markDirty(ballBounds.remove(ball));
+		changed(null);
+	}
+
+	/**
+	 * Gets the gizmo covering a cell of the board.
+	 * 
+	 * @param x - the x position of the cell.
+	 * @param y - the y position of the cell.
+	 * @return The gizmo, or null if the cell is empty.
+	 */
+	public IGizmo getGizmoAt(int x, int y) {
+		return gizmoIndex.get(x, y);
+	}
+
+	/**
+	 * Starts a batch of changes. Until the matching call to endUpdate the
+	 * board doesn't notify its observers of each change, instead it notifies
+	 * them once at the end with a list of the items added in the batch.
+	 * Batches can be nested, observers are notified when the outermost ends.
+	 */
+	public void beginUpdate() {
+		if (updateDepth++ == 0) {
+			batchChanged = false;
+			batchAdded = new ArrayList<IBoardItem>();
+		}
+	}
+
+	/**
+	 * Ends a batch of changes started by beginUpdate.
+	 */
+	public void endUpdate() {
+		if (updateDepth == 0)
+			throw new IllegalStateException("endUpdate called without beginUpdate");
+
+		if (--updateDepth == 0 && batchChanged) {
+			List<IBoardItem> added = Collections.unmodifiableList(batchAdded);
+			batchAdded = null;
+			this.setChanged();
+			this.notifyObservers(added);
+		}
+	}
+
+	/**
+	 * Adds many gizmos and balls to the board as one batch of changes.
+	 * 
+	 * @param items - the items to add.
+	 */
+	public void addAll(Collection<? extends IBoardItem> items) {
+		beginUpdate();
+
+		try {
+			for (IBoardItem item : items) {
+				if (item instanceof Ball)
+					addBall((Ball) item);
+				else
+					addGizmo((IGizmo) item);
+			}
+		} finally {
+			endUpdate();
+		}
+	}
+
+	/**
+	 * Checks whether a gizmo or ball is on the board.
+	 * 
+	 * @param item - the item to look for.
+	 * @return True if the item is on the board; otherwise, false.
+	 */
+	public boolean contains(IBoardItem item) {
+		if (item instanceof IGizmo)
+			return gizmoIndex.contains((IGizmo) item);
+		else if (item instanceof Ball)
+			return ballBounds.containsKey(item);
+
+		return false;
+	}
+
+	/**
+	 * Gets the gizmos whose bounds intersect a region of the board.
+	 * 
+	 * @param region - the region in board units.
+	 * @return The gizmos in the region, in no particular order.
+	 */
+	public List<IGizmo> getGizmosIn(Rectangle2D region) {
+		List<IGizmo> result = new ArrayList<IGizmo>();
+		getGizmosIn(region, result);
+		return result;
+	}
+
+	/**
+	 * Gets the gizmos whose bounds intersect a region of the board into a
+	 * list, so that a view drawing every frame can reuse the same one.
+	 * 
+	 * @param region - the region in board units.
+	 * @param result - the list to fill, anything already in it is removed.
+	 */
+	public void getGizmosIn(Rectangle2D region, List<IGizmo> result) {
+		result.clear();
+		gizmoIndex.query(region.getMinX(), region.getMinY(),
+				region.getMaxX(), region.getMaxY(), result);
+	}
+
+	/**
+	 * Checks whether an area of the board is free to place an item in. The
+	 * area must be within the board and not contain any gizmo or the centre
+	 * of any ball. This takes time proportional to the area, not to the
+	 * number of items on the board.
+	 * 
+	 * @param x - the left of the area.
+	 * @param y - the top of the area.
+	 * @param width - the width of the area.
+	 * @param height - the height of the area.
+	 * @param ignore - a gizmo to ignore, such as one being moved, or null.
+	 * @return True if the area is free; otherwise, false.
+	 */
+	public boolean isAreaFree(int x, int y, int width, int height, IGizmo ignore) {
+		return gizmoIndex.isClear(x, y, width, height, ignore)
+				&& ballIndex.isClear(x, y, width, height);
+	}
+
+	/**
+	 * Gets the ball whose centre is in a cell of the board.
+	 * 
+	 * @param x - the x position of the cell.
+	 * @param y - the y position of the cell.
+	 * @return The ball, or null if there isn't one.
+	 */
+	public Ball getBallAt(int x, int y) {
+		return ballIndex.get(x, y);
+	}
+
+	public void runMode() {
+		runMode = !runMode;
+		this.setChanged();
+		this.notifyObservers(runMode);
+	}
+
+	/**
+	 * Gets the areas of the board, in board units, which have changed
+	 * visually since the dirty region was last cleared. These cover the
+	 * old and new bounds of moved balls and the bounds of any gizmo
+	 * which has changed state (flippers, spinners, gates, absorbers).
+	 * Overlapping areas are merged, but ones apart from each other are kept
+	 * apart, up to a few, so that balls on opposite sides of the board
+	 * don't make everything between them dirty.
+	 * 
+	 * @return The dirty rectangles, which don't overlap, or an empty list if
+	 *         nothing has changed. This can't be modified.
+	 */
+	public List<Rectangle2D> getDirtyRegions() {
+		return Collections.<Rectangle2D> unmodifiableList(dirtyRegions);
+	}
+
+	/**
+	 * Clears the dirty region, this should be called once every view has
+	 * been told about the current frame.
+	 */
+	public void clearDirtyRegions() {
+		dirtyRegions.clear();
+	}
+
+	/**
+	 * Tracks changes to the balls and gizmos on the board so that the
+	 * dirty region and the ball index can be kept up to date.
+	 */
+	@Override
+	public void update(Observable source, Object arg) {
+		if (source instanceof Ball) {
+			Ball ball = (Ball) source;
+			Rectangle2D.Double bounds = ballBounds.get(ball);
+			ballIndex.update(ball);
+
+			if (bounds != null) {
+				// the old bounds need repainting as well as the new ones
+				markDirty(bounds);
+				bounds.setRect(ball.getX() - ball.getRadius(), ball.getY()
+						- ball.getRadius(), ball.getRadius() * 2,
+						ball.getRadius() * 2);
+				markDirty(bounds);
+			}
+		} else if (source instanceof IGizmo) {
+			// flippers and spinners sweep within their bounding box, so
+			// this covers every angle they can be drawn at
+			markDirty((IGizmo) source);
+		}
+	}
+
+	/**
+	 * Tells observers an item has been added, or remembers it for the end of
+	 * the current batch.
+	 */
+	private void itemAdded(IBoardItem item) {
+		if (updateDepth > 0) {
+			batchChanged = true;
+			batchAdded.add(item);
+		} else {
+			this.setChanged();
+			this.notifyObservers(item);
+		}
+	}
+
+	/**
+	 * Tells observers the board has changed, unless in a batch of changes.
+	 * 
+	 * @param arg - the argument to notify observers with.
+	 */
+	private void changed(Object arg) {
+		if (updateDepth > 0) {
+			batchChanged = true;
+		} else {
+			this.setChanged();
+			this.notifyObservers(arg);
+		}
+	}
+
+	private void observe(IGizmo gizmo) {
+		if (gizmo instanceof Observable) {
+			((Observable) gizmo).addObserver(this);
+		}
+	}
+
+	private void ignore(IGizmo gizmo) {
+		if (gizmo instanceof Observable) {
+			((Observable) gizmo).deleteObserver(this);
+		}
+	}
+
+	private void markDirty(IGizmo gizmo) {
+		markDirty(gizmo.getX(), gizmo.getY(), gizmo.getWidth(),
+				gizmo.getHeight());
+	}
+
+	private void markDirty(Rectangle2D bounds) {
+		if (bounds != null) {
+			markDirty(bounds.getX(), bounds.getY(), bounds.getWidth(),
+					bounds.getHeight());
+		}
+	}
+
+	private void markDirty(double x, double y, double w, double h) {
+		Rectangle2D.Double region = new Rectangle2D.Double(x, y, w, h);
+		boolean merged;
+
+		// merge it with any rectangle it overlaps, and again with any the
+		// result overlaps, or with the nearest if there are too many
+		do {
+			merged = false;
+
+			for (int i = 0; i < dirtyRegions.size(); i++) {
+				Rectangle2D.Double other = dirtyRegions.get(i);
+
+				if (other.intersects(region) || other.contains(region) || region.contains(other)) {
+					region.add(other);
+					dirtyRegions.remove(i);
+					merged = true;
+					break;
+				}
+			}
+
+			if (!merged && dirtyRegions.size() == MAX_DIRTY_REGIONS) {
+				region.add(dirtyRegions.remove(nearestDirtyRegion(region)));
+				merged = true;
+			}
+		} while (merged);
+
+		dirtyRegions.add(region);
+	}
+
+	/**
+	 * Finds the dirty rectangle which adds the least area when merged with
+	 * another rectangle.
+	 * 
+	 * @return The index of the rectangle in the dirty region.
+	 */
+	private int nearestDirtyRegion(Rectangle2D region) {
+		int nearest = 0;
+		double leastGrowth = Double.MAX_VALUE;
+
+		for (int i = 0; i < dirtyRegions.size(); i++) {
+			Rectangle2D other = dirtyRegions.get(i);
+			Rectangle2D union = other.createUnion(region);
+			double growth = union.getWidth() * union.getHeight() - other.getWidth() * other.getHeight();
+
+			if (growth < leastGrowth) {
+				nearest = i;
+				leastGrowth = growth;
+			}
+		}
+
+		return nearest;
+	}
+
+	private static Rectangle2D.Double getBounds(Ball ball) {
+		double r = ball.getRadius();
+		return new Rectangle2D.Double(ball.getX() - r, ball.getY() - r, r * 2,
+				r * 2);
+	}
+}
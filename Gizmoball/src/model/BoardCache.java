@@ -0,0 +1,501 @@
+package model;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import controller.TriggerHandler;
+import exceptions.BadFileException;
+
+/**
+ * Keeps the boards loaded from text files, so that loading one again makes
+ * the board from a template rather than parsing the file again. A template
+ * is the board in the binary format, held as bytes which are never changed.
+ *
+ * Templates are found by a hash of the file's contents, so a board copied
+ * to another file shares its template. The length and modification time of
+ * each file are remembered with its hash, and a file is only read and
+ * hashed again when they change. The templates used least recently are
+ * dropped to keep the total size within a budget.
+ *
+ * Templates can also be kept in a directory, named by their hash, so they
+ * are there after a restart. Boards whose file doesn't set both gravity and
+ * friction are only kept in memory, as a binary file always sets them.
+ */
+public class BoardCache {
+
+	public static final String FILE_SUFFIX = ".gzb";
+
+	private long budget;
+	private long size;
+	private File directory;
+	// by content hash, in the order they were last used
+	private Map<String, Template> templates = new LinkedHashMap<String, Template>(16, 0.75f, true);
+	// by canonical path
+	private Map<String, FileState> files = new HashMap<String, FileState>();
+
+	/**
+	 * Creates a cache which keeps templates only in memory.
+	 *
+	 * @param budget - the most bytes of templates to keep.
+	 */
+	public BoardCache(long budget) {
+		this.budget = budget;
+	}
+
+	/**
+	 * Sets the most bytes of templates to keep in memory, dropping templates
+	 * if there are more than that already.
+	 *
+	 * @param budget - the budget in bytes.
+	 */
+	public synchronized void setBudget(long budget) {
+		this.budget = budget;
+		evict();
+	}
+
+	/**
+	 * Sets the directory to keep templates in as well as in memory.
+	 *
+	 * @param directory - the directory, or null to keep them only in memory.
+	 */
+	public synchronized void setDirectory(File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Gets the number of bytes of templates in memory.
+	 */
+	public synchronized long getSize() {
+		return size;
+	}
+
+	/**
+	 * Drops every template in memory.
+	 */
+	public synchronized void clear() {
+		templates.clear();
+		files.clear();
+		size = 0;
+	}
+
+	/**
+	 * Opens a board file as Loader.open does. A text file which has been
+	 * loaded before is made from its template, and one which hasn't is kept
+	 * as a template once it has loaded. Binary files and checkpoints are
+	 * loaded from the file as they are already quick to load.
+	 *
+	 * @param fileName - the file to open.
+	 * @param board - the board to load the items onto.
+	 * @param listener - if not null, the items are handed to this rather
+	 *        than added to the board, a chunk at a time for a text file which
+	 *        isn't cached and is too small to be parsed on several threads.
+	 * @throws IOException Thrown if there is a problem reading the file.
+	 */
+	public IBoardLoader open(String fileName, Board board, ILoadProgressListener listener)
+			throws IOException {
+		IBoardLoader loader;
+
+		if (BinaryLoader.isBinaryFile(fileName)) {
+			loader = new BinaryLoader(fileName, board);
+			loader.setLoadProgressListener(listener);
+			return loader;
+		}
+
+		if (CheckpointLoader.isCheckpointFile(fileName)) {
+			loader = new CheckpointLoader(fileName, board);
+			loader.setLoadProgressListener(listener);
+			return loader;
+		}
+
+		File file = new File(fileName);
+		String path = file.getCanonicalPath();
+		FileState state = new FileState(file);
+		Template template;
+
+		synchronized (this) {
+			FileState known = files.get(path);
+
+			if (known != null && known.isSameAs(state))
+				state = known;
+		}
+
+		if (state.hash == null)
+			state.hash = hash(file);
+
+		synchronized (this) {
+			files.put(path, state);
+			template = templates.get(state.hash);
+
+			if (template == null && directory != null) {
+				template = readTemplate(state.hash);
+
+				if (template != null)
+					add(state.hash, template);
+			}
+		}
+
+		if (template != null)
+			loader = new TemplateLoader(template, board);
+		else if (listener != null && !ParallelLoader.isWorthUsing(fileName))
+			loader = new CachingLoader(new StreamingLoader(fileName, board), board, file, state);
+		else
+			loader = new CachingLoader(Loader.open(fileName, board), board, file, state);
+
+		loader.setLoadProgressListener(listener);
+		return loader;
+	}
+
+	private synchronized void add(String hash, Template template) {
+		if (template.bytes.length > budget)
+			return;
+
+		Template old = templates.put(hash, template);
+
+		if (old != null)
+			size -= old.bytes.length;
+
+		size += template.bytes.length;
+		evict();
+	}
+
+	private void evict() {
+		Iterator<Template> iterator = templates.values().iterator();
+
+		while (size > budget && iterator.hasNext()) {
+			size -= iterator.next().bytes.length;
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * Reads a template kept in the directory, checking it is a whole binary
+	 * board. One which isn't is deleted.
+	 *
+	 * @return The template, or null if there isn't one.
+	 */
+	private Template readTemplate(String hash) {
+		File file = new File(directory, hash + FILE_SUFFIX);
+
+		if (!file.isFile())
+			return null;
+
+		try {
+			byte[] bytes = readAll(file);
+			new BinaryLoader(new Board(1, 1)).read(ByteBuffer.wrap(bytes), new Settings(null));
+			return new Template(bytes, true, true);
+		} catch (IOException e) {
+			return null;
+		} catch (BadFileException e) {
+			file.delete();
+			return null;
+		}
+	}
+
+	private void writeTemplate(String hash, Template template) {
+		File file = new File(directory, hash + FILE_SUFFIX);
+		File temporary = new File(directory, hash + ".tmp");
+
+		try {
+			if (!directory.isDirectory() && !directory.mkdirs())
+				throw new IOException("cannot create " + directory);
+
+			OutputStream output = new FileOutputStream(temporary);
+
+			try {
+				output.write(template.bytes);
+			} finally {
+				output.close();
+			}
+
+			// another process may have written the same template already
+			if (!temporary.renameTo(file) && !file.isFile())
+				throw new IOException("cannot rename " + temporary + " to " + file);
+		} catch (IOException e) {
+			// the board has loaded, so this is passed on rather than thrown
+			CompressedFiles.failed(file.getPath(), e);
+		} finally {
+			temporary.delete();
+		}
+	}
+
+	private static byte[] readAll(File file) throws IOException {
+		InputStream input = new FileInputStream(file);
+
+		try {
+			byte[] bytes = new byte[(int) file.length()];
+			int length = 0;
+			int read;
+
+			while ((read = input.read(bytes, length, bytes.length - length)) > 0) {
+				length += read;
+
+				if (length == bytes.length)
+					bytes = Arrays.copyOf(bytes, bytes.length * 2 + 1);
+			}
+
+			return Arrays.copyOf(bytes, length);
+		} finally {
+			input.close();
+		}
+	}
+
+	private static String hash(File file) throws IOException {
+		MessageDigest digest;
+
+		try {
+			digest = MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException e) {
+			// every Java platform has SHA-1
+			throw new IllegalStateException(e);
+		}
+
+		InputStream input = new FileInputStream(file);
+
+		try {
+			byte[] buffer = new byte[64 * 1024];
+			int read;
+
+			while ((read = input.read(buffer)) > 0)
+				digest.update(buffer, 0, read);
+		} finally {
+			input.close();
+		}
+
+		StringBuilder hash = new StringBuilder();
+
+		for (byte b : digest.digest())
+			hash.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+
+		return hash.toString();
+	}
+
+	/**
+	 * A board in the binary format, and whether the text file it came from
+	 * set gravity and friction. When it didn't they are left as they were.
+	 */
+	private static class Template {
+		final byte[] bytes;
+		final boolean gravitySet, frictionSet;
+
+		Template(byte[] bytes, boolean gravitySet, boolean frictionSet) {
+			this.bytes = bytes;
+			this.gravitySet = gravitySet;
+			this.frictionSet = frictionSet;
+		}
+	}
+
+	/**
+	 * What was last seen of a file.
+	 */
+	private static class FileState {
+		final long length, modified;
+		String hash;
+
+		FileState(File file) {
+			length = file.length();
+			modified = file.lastModified();
+		}
+
+		boolean isSameAs(FileState other) {
+			return length == other.length && modified == other.modified;
+		}
+	}
+
+	/**
+	 * Notes whether gravity and friction are set while a board loads, passing
+	 * them on to an engine, or keeping them itself if there isn't one.
+	 */
+	private static class Settings implements IPhysicsEngine {
+		private IPhysicsEngine engine;
+		private double gravity, mu, mu2;
+		boolean gravitySet, frictionSet;
+
+		Settings(IPhysicsEngine engine) {
+			this.engine = engine;
+		}
+
+		@Override
+		public void initialise(Board map) {
+		}
+
+		@Override
+		public void calculateState(double timeDelta) {
+		}
+
+		@Override
+		public void setFriction(double mu, double mu2) {
+			frictionSet = true;
+
+			if (engine != null) {
+				engine.setFriction(mu, mu2);
+			} else {
+				this.mu = mu;
+				this.mu2 = mu2;
+			}
+		}
+
+		@Override
+		public void setGravity(double gravity) {
+			gravitySet = true;
+
+			if (engine != null)
+				engine.setGravity(gravity);
+			else
+				this.gravity = gravity;
+		}
+
+		@Override
+		public double getGravity() {
+			return engine != null ? engine.getGravity() : gravity;
+		}
+
+		@Override
+		public double getFriction1() {
+			return engine != null ? engine.getFriction1() : mu;
+		}
+
+		@Override
+		public double getFriction2() {
+			return engine != null ? engine.getFriction2() : mu2;
+		}
+	}
+
+	/**
+	 * Makes a board from a template.
+	 */
+	private static class TemplateLoader implements IBoardLoader {
+		private Template template;
+		private Board board;
+		private ILoadProgressListener listener;
+		private BinaryLoader reader;
+
+		TemplateLoader(Template template, Board board) {
+			this.template = template;
+			this.board = board;
+
+			reader = new BinaryLoader(board);
+		}
+
+		@Override
+		public void setLoadProgressListener(ILoadProgressListener listener) {
+			this.listener = listener;
+		}
+
+		@Override
+		public void load(IPhysicsEngine engine) throws BadFileException {
+			double gravity = engine.getGravity();
+			double mu = engine.getFriction1(), mu2 = engine.getFriction2();
+			IBoardItem[] items = reader.read(ByteBuffer.wrap(template.bytes).asReadOnlyBuffer(), engine);
+
+			if (!template.gravitySet)
+				engine.setGravity(gravity);
+
+			if (!template.frictionSet)
+				engine.setFriction(mu, mu2);
+
+			if (listener == null)
+				board.addAll(Arrays.asList(items));
+			else
+				listener.loadProgressed(Arrays.asList(items), 1, 1);
+		}
+
+		@Override
+		public Map<Integer, List<IBoardItem>> getKeyUpTriggers() {
+			return reader.getKeyUpTriggers();
+		}
+
+		@Override
+		public Map<Integer, List<IBoardItem>> getKeyDownTriggers() {
+			return reader.getKeyDownTriggers();
+		}
+	}
+
+	/**
+	 * Loads a text file and keeps the board it loaded as a template. The
+	 * board isn't kept if it wasn't empty to start with, if the file changed
+	 * while it was loading, or if a listener was handed the items and hasn't
+	 * put them all on the board by the time loading finishes.
+	 */
+	private class CachingLoader implements IBoardLoader {
+		private IBoardLoader loader;
+		private Board board;
+		private File file;
+		private FileState state;
+		private int itemsHandedOver = -1;
+
+		CachingLoader(IBoardLoader loader, Board board, File file, FileState state) {
+			this.loader = loader;
+			this.board = board;
+			this.file = file;
+			this.state = state;
+		}
+
+		@Override
+		public void load(IPhysicsEngine engine) throws BadFileException, IOException {
+			boolean empty = board.getGizmos().isEmpty() && board.getBalls().isEmpty();
+			Settings settings = new Settings(engine);
+
+			loader.load(settings);
+
+			if (!empty || !state.isSameAs(new FileState(file)))
+				return;
+
+			if (itemsHandedOver >= 0 && itemsHandedOver != board.getGizmos().size() + board.getBalls().size())
+				return;
+
+			TriggerHandler triggers = new TriggerHandler(getKeyUpTriggers(), getKeyDownTriggers());
+			ByteBuffer buffer = new BinarySaver(null).write(engine, board, triggers);
+			byte[] bytes = new byte[buffer.remaining()];
+			buffer.get(bytes);
+
+			Template template = new Template(bytes, settings.gravitySet, settings.frictionSet);
+			add(state.hash, template);
+
+			synchronized (BoardCache.this) {
+				if (directory != null && template.gravitySet && template.frictionSet)
+					writeTemplate(state.hash, template);
+			}
+		}
+
+		@Override
+		public void setLoadProgressListener(final ILoadProgressListener listener) {
+			if (listener == null) {
+				itemsHandedOver = -1;
+				loader.setLoadProgressListener(null);
+				return;
+			}
+
+			itemsHandedOver = 0;
+			loader.setLoadProgressListener(new ILoadProgressListener() {
+				@Override
+				public void loadProgressed(List<IBoardItem> items, int linesLoaded, int lineCount) {
+					itemsHandedOver += items.size();
+					listener.loadProgressed(items, linesLoaded, lineCount);
+				}
+			});
+		}
+
+		@Override
+		public Map<Integer, List<IBoardItem>> getKeyUpTriggers() {
+			return loader.getKeyUpTriggers();
+		}
+
+		@Override
+		public Map<Integer, List<IBoardItem>> getKeyDownTriggers() {
+			return loader.getKeyDownTriggers();
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package model;
+
+/**
+ * One command line of a board file, as read by BoardCommandParser. Only the
+ * fields used by the kind of command are set.
+ */
+final class BoardCommand {
+
+	enum Kind {
+		Gizmo, Absorber, Ball, Rotate, Delete, MoveInt, MoveFloat, Connect,
+		KeyConnect, Gravity, Friction,
+		// only written by BoardJournal
+		Disconnect, KeyDisconnect
+	}
+
+	Kind kind;
+	// the gizmo keyword, such as "Square", for a Gizmo command
+	String gizmoOp;
+	String name, name2;
+	int x1, y1, x2, y2;
+	double xd, yd, vx, vy;
+	int key;
+	boolean keyUp;
+	// the line the command was read from, for error messages
+	String line;
+}
@@ -0,0 +1,320 @@
+package model;
+
+import exceptions.BadFileException;
+
+/**
+ * Reads the command lines of a board file. Each line is scanned once from
+ * left to right, choosing the command from its first word and reading the
+ * numbers straight from the characters of the line.
+ *
+ * This accepts exactly the lines the grammar in Loader allows: words are
+ * separated by single spaces, names are made from the characters
+ * {'0'..'9','A'..'Z','a'..'z','_'}, integers are plain digits and floats are
+ * digits with a decimal point and at least one digit after it.
+ *
+ * A parser for a journal also accepts the commands only BoardJournal writes,
+ * which undo a Connect or a KeyConnect:
+ *
+ * Disconnect <name> <name> |
+ * KeyDisconnect <keyid> <name>
+ */
+class BoardCommandParser {
+
+	private static final String[] GIZMO_OPS = { "Square", "Circle", "Triangle", "RightFlipper",
+			"LeftFlipper", "Accelerator", "Portal", "Multiball", "Gate", "Spinner" };
+
+	// the powers of ten which a double holds exactly
+	private static final double[] POW10 = new double[23];
+	// the largest mantissa which a double holds exactly
+	private static final long MAX_EXACT = 1L << 53;
+
+	static {
+		POW10[0] = 1;
+
+		for (int i = 1; i < POW10.length; i++)
+			POW10[i] = POW10[i - 1] * 10;
+	}
+
+	private boolean journal;
+	private String line;
+	private int pos;
+
+	/**
+	 * Creates a parser for board files.
+	 */
+	BoardCommandParser() {
+		this(false);
+	}
+
+	/**
+	 * Creates a parser.
+	 *
+	 * @param journal - whether to accept the commands of a journal as well.
+	 */
+	BoardCommandParser(boolean journal) {
+		this.journal = journal;
+	}
+
+	/**
+	 * Reads one command line.
+	 *
+	 * @param line - the line, which must not be empty.
+	 * @param command - set to the command the line holds.
+	 * @throws BadFileException If the line isn't a valid command.
+	 */
+	void parse(String line, BoardCommand command) throws BadFileException {
+		this.line = line;
+		pos = 0;
+		command.line = line;
+		command.name = null;
+		command.name2 = null;
+
+		int end = line.indexOf(' ');
+
+		if (end < 0)
+			throw invalid();
+
+		String op = null;
+
+		for (String gizmoOp : GIZMO_OPS) {
+			if (isWord(gizmoOp, end)) {
+				op = gizmoOp;
+				break;
+			}
+		}
+
+		if (op != null) {
+			command.kind = BoardCommand.Kind.Gizmo;
+			command.gizmoOp = op;
+			command.name = name();
+			command.x1 = integer();
+			command.y1 = integer();
+		} else if (isWord("Absorber", end)) {
+			command.kind = BoardCommand.Kind.Absorber;
+			command.name = name();
+			command.x1 = integer();
+			command.y1 = integer();
+			command.x2 = integer();
+			command.y2 = integer();
+		} else if (isWord("Ball", end)) {
+			command.kind = BoardCommand.Kind.Ball;
+			command.name = name();
+			command.xd = decimal();
+			command.yd = decimal();
+			command.vx = decimal();
+			command.vy = decimal();
+		} else if (isWord("Rotate", end)) {
+			command.kind = BoardCommand.Kind.Rotate;
+			command.name = name();
+		} else if (isWord("Delete", end)) {
+			command.kind = BoardCommand.Kind.Delete;
+			command.name = name();
+		} else if (isWord("Move", end)) {
+			command.name = name();
+
+			// the first number decides whether both are integers or floats
+			if (nextIsDecimal()) {
+				command.kind = BoardCommand.Kind.MoveFloat;
+				command.xd = decimal();
+				command.yd = decimal();
+			} else {
+				command.kind = BoardCommand.Kind.MoveInt;
+				command.x1 = integer();
+				command.y1 = integer();
+			}
+		} else if (isWord("Connect", end)) {
+			command.kind = BoardCommand.Kind.Connect;
+			command.name = name();
+			command.name2 = name();
+		} else if (isWord("KeyConnect", end)) {
+			command.kind = BoardCommand.Kind.KeyConnect;
+			keyLink(command);
+		} else if (journal && isWord("Disconnect", end)) {
+			command.kind = BoardCommand.Kind.Disconnect;
+			command.name = name();
+			command.name2 = name();
+		} else if (journal && isWord("KeyDisconnect", end)) {
+			command.kind = BoardCommand.Kind.KeyDisconnect;
+			keyLink(command);
+		} else if (isWord("Gravity", end)) {
+			command.kind = BoardCommand.Kind.Gravity;
+			command.xd = decimal();
+		} else if (isWord("Friction", end)) {
+			command.kind = BoardCommand.Kind.Friction;
+			command.xd = decimal();
+			command.yd = decimal();
+		} else {
+			throw invalid();
+		}
+
+		if (pos != line.length())
+			throw invalid();
+	}
+
+	/**
+	 * Reads the key and name of a KeyConnect or KeyDisconnect.
+	 */
+	private void keyLink(BoardCommand command) throws BadFileException {
+		keyword("key");
+		command.key = integer();
+
+		if (line.startsWith(" up", pos)) {
+			keyword("up");
+			command.keyUp = true;
+		} else {
+			keyword("down");
+			command.keyUp = false;
+		}
+
+		command.name = name();
+	}
+
+	/**
+	 * Checks whether the first word of the line is a keyword, and if so
+	 * moves to the end of it.
+	 */
+	private boolean isWord(String word, int end) {
+		if (end != word.length() || !line.startsWith(word))
+			return false;
+
+		pos = end;
+		return true;
+	}
+
+	/**
+	 * Reads a space followed by a keyword.
+	 */
+	private void keyword(String word) throws BadFileException {
+		separator();
+
+		if (!line.startsWith(word, pos))
+			throw invalid();
+
+		pos += word.length();
+	}
+
+	private void separator() throws BadFileException {
+		if (pos >= line.length() || line.charAt(pos) != ' ')
+			throw invalid();
+
+		pos++;
+	}
+
+	/**
+	 * Reads a space followed by a name.
+	 */
+	private String name() throws BadFileException {
+		separator();
+		int start = pos;
+
+		while (pos < line.length() && isNameChar(line.charAt(pos)))
+			pos++;
+
+		if (pos == start)
+			throw invalid();
+
+		return line.substring(start, pos);
+	}
+
+	private static boolean isNameChar(char c) {
+		return (c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || c == '_';
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	/**
+	 * Reads a space followed by an integer.
+	 */
+	private int integer() throws BadFileException {
+		separator();
+		int start = pos;
+		long value = 0;
+
+		while (pos < line.length() && isDigit(line.charAt(pos))) {
+			value = value * 10 + (line.charAt(pos++) - '0');
+
+			if (value > Integer.MAX_VALUE)
+				throw invalid();
+		}
+
+		if (pos == start)
+			throw invalid();
+
+		return (int) value;
+	}
+
+	/**
+	 * Checks whether the number after the next space has a decimal point.
+	 */
+	private boolean nextIsDecimal() {
+		int i = pos + 1;
+
+		if (i < line.length() && line.charAt(i) == '-')
+			i++;
+
+		while (i < line.length() && isDigit(line.charAt(i)))
+			i++;
+
+		return i < line.length() && line.charAt(i) == '.';
+	}
+
+	/**
+	 * Reads a space followed by a float, which may be negative as Saver
+	 * writes the velocity of a ball moving up or left.
+	 */
+	private double decimal() throws BadFileException {
+		separator();
+		boolean negative = pos < line.length() && line.charAt(pos) == '-';
+
+		if (negative)
+			pos++;
+
+		int start = pos;
+		long mantissa = 0;
+		int digits = 0;
+
+		while (pos < line.length() && isDigit(line.charAt(pos))) {
+			if (digits < 18)
+				mantissa = mantissa * 10 + (line.charAt(pos) - '0');
+
+			digits++;
+			pos++;
+		}
+
+		if (pos >= line.length() || line.charAt(pos) != '.')
+			throw invalid();
+
+		pos++;
+		int fractionStart = pos;
+
+		while (pos < line.length() && isDigit(line.charAt(pos))) {
+			if (digits < 18)
+				mantissa = mantissa * 10 + (line.charAt(pos) - '0');
+
+			digits++;
+			pos++;
+		}
+
+		int fractionDigits = pos - fractionStart;
+
+		if (fractionDigits == 0)
+			throw invalid();
+
+		// both the mantissa and the power of ten are exact, so dividing them
+		// rounds correctly and gives the same double as parseDouble
+		double value;
+
+		if (digits < 18 && mantissa <= MAX_EXACT && fractionDigits < POW10.length)
+			value = mantissa / POW10[fractionDigits];
+		else
+			value = Double.parseDouble(line.substring(start, pos));
+
+		return negative ? -value : value;
+	}
+
+	private BadFileException invalid() {
+		return new BadFileException("invalid command " + line);
+	}
+}
@@ -0,0 +1,147 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Locale;
+
+/**
+ * Writes the text of a board file through one buffer and a channel, which
+ * compresses it if the file name ends with CompressedFiles.SUFFIX.
+ * Numbers are written straight into the buffer in the same form as the %d
+ * and %f conversions of String.format, without creating a Formatter or any
+ * Strings. Only ASCII is written, which is all a board file can hold.
+ */
+final class BoardFileWriter {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+	// the longest number appendInteger or appendFloat write without falling back
+	private static final int MAX_NUMBER_LENGTH = 32;
+	// floats smaller than this can be scaled to a long number of millionths
+	private static final double MAX_FAST_FLOAT = 1e9;
+
+	private WritableByteChannel channel;
+	private ByteBuffer buffer;
+	private byte[] digits;
+
+	BoardFileWriter(String fileName) throws IOException {
+		this(CompressedFiles.openOutput(fileName));
+	}
+
+	/**
+	 * Creates a writer which writes to a channel, closing it when done.
+	 */
+	BoardFileWriter(WritableByteChannel channel) {
+		this.channel = channel;
+		buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		digits = new byte[20];
+	}
+
+	BoardFileWriter append(String text) throws IOException {
+		for (int i = 0; i < text.length(); i++)
+			append(text.charAt(i));
+
+		return this;
+	}
+
+	BoardFileWriter append(char c) throws IOException {
+		if (!buffer.hasRemaining())
+			flush();
+
+		buffer.put(c < 128 ? (byte) c : (byte) '?');
+		return this;
+	}
+
+	/**
+	 * Appends an integer as %d does.
+	 */
+	BoardFileWriter appendInteger(long value) throws IOException {
+		if (buffer.remaining() < MAX_NUMBER_LENGTH)
+			flush();
+
+		if (value < 0) {
+			if (value == Long.MIN_VALUE)
+				return append(Long.toString(value));
+
+			buffer.put((byte) '-');
+			value = -value;
+		}
+
+		putDigits(value, 1);
+		return this;
+	}
+
+	/**
+	 * Appends a float as %f does, with six decimal places.
+	 */
+	BoardFileWriter appendFloat(double value) throws IOException {
+		double magnitude = Math.abs(value);
+
+		// false for NaN, which falls back below with the infinities
+		if (magnitude < MAX_FAST_FLOAT) {
+			double scaled = magnitude * 1e6;
+			double whole = Math.floor(scaled);
+			double fraction = scaled - whole;
+
+			// %f rounds the shortest decimal form of the value half up, which
+			// may differ from rounding the exact value when the digits after
+			// the sixth place are within a few units of the last place of a
+			// half; leave those to String.format
+			if (Math.abs(fraction - 0.5) > 4 * Math.ulp(scaled)) {
+				long millionths = (long) whole + (fraction > 0.5 ? 1 : 0);
+
+				if (buffer.remaining() < MAX_NUMBER_LENGTH)
+					flush();
+
+				// %f keeps the sign of negative zero and of values which round to zero
+				if (Double.doubleToRawLongBits(value) < 0)
+					buffer.put((byte) '-');
+
+				putDigits(millionths / 1000000, 1);
+				buffer.put((byte) '.');
+				putDigits(millionths % 1000000, 6);
+				return this;
+			}
+		}
+
+		return append(String.format(Locale.ROOT, "%f", value));
+	}
+
+	/**
+	 * Puts the digits of a number which isn't negative, padded with zeros.
+	 */
+	private void putDigits(long value, int minDigits) {
+		int count = 0;
+
+		do {
+			digits[count++] = (byte) ('0' + value % 10);
+			value /= 10;
+		} while (value != 0);
+
+		while (count < minDigits)
+			digits[count++] = '0';
+
+		while (count > 0)
+			buffer.put(digits[--count]);
+	}
+
+	private void flush() throws IOException {
+		buffer.flip();
+
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+
+		buffer.clear();
+	}
+
+	/**
+	 * Writes out whatever is left in the buffer and closes the file.
+	 */
+	void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+}
@@ -0,0 +1,729 @@
+package model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.io.SequenceInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import model.gizmos.IGizmo;
+import controller.TriggerHandler;
+import exceptions.BadFileException;
+
+/**
+ * Keeps a copy of the board being designed on disk, so that it can be
+ * recovered if the application stops without closing properly. The copy is
+ * a snapshot of the whole board, written by Saver, followed by a journal of
+ * the edits made since, written as the same commands a board file uses.
+ * Each edit only appends a few lines to the journal, so recording it costs
+ * nothing like saving the board. Removing a connection or a key link is
+ * written as a Disconnect or KeyDisconnect, which only the journal uses, so
+ * undoing an edit or deleting a linked item is journalled like any other
+ * edit. The snapshot is rewritten, and the journal emptied, once the journal
+ * holds COMPACT_AFTER edits or when an edit touches an item the journal
+ * hasn't named, such as a ball made while running.
+ *
+ * The files of each snapshot are numbered by a generation. A new snapshot is
+ * written to a temporary file, forced to the disk and renamed once it is
+ * complete, and only then are the files of the generation before deleted, so
+ * the newest snapshot in the directory is always whole. Recovery loads it and
+ * the complete lines of its journal with Loader.
+ *
+ * Once open, the files are written on a thread of the journal's own, in the
+ * order the edits were made. A snapshot is only made into text on the thread
+ * editing the board, so the disk never holds up the event queue. If the files
+ * can't be written the journal stops, and the error is passed to
+ * CompressedFiles' error listener.
+ */
+public class BoardJournal {
+
+	// how many edits are journalled before a new snapshot is written
+	public static final int COMPACT_AFTER = 1000;
+
+	private static final String LOCK_NAME = "lock";
+	// board.<generation>.<width>x<height>.txt and journal.<generation>.txt
+	private static final Pattern SNAPSHOT_NAME = Pattern.compile("board\\.(\\d+)\\.(\\d+)x(\\d+)\\.txt");
+	private static final Pattern JOURNAL_NAME = Pattern.compile("journal\\.(\\d+)\\.txt");
+	// items added since the snapshot are named J_0, J_1, ..., which Saver never uses
+	private static final String NAME_PREFIX = "J_";
+
+	private IPhysicsEngine engine;
+	private Board board;
+	private TriggerHandler triggerHandler;
+
+	private File directory;
+	// writes the files once the journal is open, or null when it isn't
+	private ExecutorService writer;
+	// the generation of the last snapshot made
+	private int generation;
+	private int entries;
+
+	// only used by the writer once the journal is open
+	private RandomAccessFile lockFile;
+	private FileLock lock;
+	private FileOutputStream journal;
+	// set once writing has failed, so nothing after is written
+	private boolean broken;
+
+	private Map<IBoardItem, String> names;
+	private int nextName;
+
+	// the commands of the edit being recorded
+	private StringBuilder edit;
+	private boolean unrecordable;
+
+	/**
+	 * Creates a journal for a board, which records nothing until it is opened.
+	 *
+	 * @param engine - the engine whose gravity and friction are recorded.
+	 * @param board - the board being designed.
+	 * @param triggerHandler - the key links of the board.
+	 */
+	public BoardJournal(IPhysicsEngine engine, Board board, TriggerHandler triggerHandler) {
+		this.engine = engine;
+		this.board = board;
+		this.triggerHandler = triggerHandler;
+	}
+
+	/**
+	 * Starts keeping the journal in a directory. If the directory holds the
+	 * journal of a session which never closed it, the board it describes is
+	 * loaded onto the board first, otherwise the current board becomes the
+	 * first snapshot.
+	 *
+	 * @param directory - the directory to keep the files in, which is created if need be.
+	 * @return True if a board was recovered.
+	 * @throws IOException Thrown if the directory can't be used, or another journal is using it.
+	 * @throws BadFileException Thrown if the files being recovered are invalid.
+	 */
+	public synchronized boolean open(File directory) throws IOException, BadFileException {
+		if (writer != null)
+			throw new IllegalStateException("the journal is already open");
+
+		directory.mkdirs();
+
+		if (!directory.isDirectory())
+			throw new IOException("can't create the journal directory " + directory);
+
+		lockFile = new RandomAccessFile(new File(directory, LOCK_NAME), "rw");
+
+		try {
+			lock = lockFile.getChannel().tryLock();
+		} catch (OverlappingFileLockException e) {
+			// another journal in this process has it
+			lock = null;
+		}
+
+		if (lock == null) {
+			lockFile.close();
+			throw new IOException(directory + " is being used by another journal");
+		}
+
+		this.directory = directory;
+		broken = false;
+		boolean recovered, opened = false;
+
+		try {
+			recovered = recover();
+
+			if (!recovered) {
+				generation++;
+				writeSnapshot(makeSnapshot(), snapshotFile(generation), generation);
+			}
+
+			opened = true;
+		} finally {
+			if (!opened)
+				unlock();
+		}
+
+		writer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable task) {
+				Thread thread = new Thread(task, "Journal writer");
+				// the journal is there to be recovered if the application stops without closing it
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+
+		return recovered;
+	}
+
+	public synchronized boolean isOpen() {
+		return writer != null;
+	}
+
+	/**
+	 * Loads the newest snapshot and its journal, if there are any.
+	 */
+	private boolean recover() throws IOException, BadFileException {
+		File snapshot = null;
+		int width = 0, height = 0;
+		generation = 0;
+
+		for (String fileName : directory.list()) {
+			Matcher matcher = SNAPSHOT_NAME.matcher(fileName);
+
+			if (matcher.matches() && Integer.parseInt(matcher.group(1)) > generation) {
+				snapshot = new File(directory, fileName);
+				generation = Integer.parseInt(matcher.group(1));
+				width = Integer.parseInt(matcher.group(2));
+				height = Integer.parseInt(matcher.group(3));
+			}
+		}
+
+		if (snapshot == null)
+			return false;
+
+		File journalFile = journalFile(generation);
+		byte[] tail = journalFile.exists() ? readCompleteLines(journalFile) : new byte[0];
+
+		board.clear();
+		triggerHandler.clear();
+		board.setSize(width, height);
+
+		InputStream input = new SequenceInputStream(new FileInputStream(snapshot), new ByteArrayInputStream(tail));
+		Loader loader = new Loader(new InputStreamReader(input, "US-ASCII"), board);
+		loader.readJournal();
+		loader.load(engine);
+		triggerHandler.addLinks(loader.getKeyUpTriggers(), loader.getKeyDownTriggers());
+
+		names = new IdentityHashMap<IBoardItem, String>();
+		nextName = 0;
+
+		for (Map.Entry<String, IBoardItem> entry : loader.getItemNames().entrySet()) {
+			String name = entry.getKey();
+			names.put(entry.getValue(), name);
+
+			if (name.startsWith(NAME_PREFIX))
+				nextName = Math.max(nextName, Integer.parseInt(name.substring(NAME_PREFIX.length())) + 1);
+		}
+
+		entries = 0;
+
+		for (byte b : tail) {
+			if (b == '\n')
+				entries++;
+		}
+
+		// rewrite the journal without any line left part written
+		journal = new FileOutputStream(journalFile);
+		journal.write(tail);
+		deleteOldFiles(generation);
+		return true;
+	}
+
+	/**
+	 * Reads a journal up to the end of its last complete line.
+	 */
+	private static byte[] readCompleteLines(File file) throws IOException {
+		RandomAccessFile input = new RandomAccessFile(file, "r");
+		byte[] bytes;
+
+		try {
+			bytes = new byte[(int) input.length()];
+			input.readFully(bytes);
+		} finally {
+			input.close();
+		}
+
+		int end = bytes.length;
+
+		while (end > 0 && bytes[end - 1] != '\n')
+			end--;
+
+		return Arrays.copyOf(bytes, end);
+	}
+
+	/**
+	 * Makes the text of a snapshot of the whole board, and names the items
+	 * in it for the edits journalled after it.
+	 */
+	private byte[] makeSnapshot() throws IOException {
+		ByteArrayOutputStream text = new ByteArrayOutputStream();
+		Saver saver = new Saver(Channels.newChannel(text));
+		saver.save(engine, board, triggerHandler);
+
+		entries = 0;
+		names = saver.getNames();
+		nextName = 0;
+		return text.toByteArray();
+	}
+
+	/**
+	 * Writes a snapshot as a new generation, with an empty journal, and
+	 * deletes the files of the generation before.
+	 */
+	private void writeSnapshot(byte[] text, File snapshot, int generation) throws IOException {
+		File temporary = new File(directory, snapshot.getName() + ".tmp");
+		FileOutputStream output = new FileOutputStream(temporary);
+
+		try {
+			output.write(text);
+			// the snapshot must be on the disk before it replaces the one before
+			output.getChannel().force(true);
+		} finally {
+			output.close();
+		}
+
+		if (!temporary.renameTo(snapshot))
+			throw new IOException("can't rename " + temporary + " to " + snapshot);
+
+		FileOutputStream nextJournal = new FileOutputStream(journalFile(generation));
+
+		if (journal != null)
+			journal.close();
+
+		journal = nextJournal;
+		deleteOldFiles(generation);
+	}
+
+	/**
+	 * Makes a snapshot of the whole board as the next generation, for the
+	 * writer to write out.
+	 */
+	private void queueSnapshot() throws IOException {
+		final byte[] text = makeSnapshot();
+		final int next = ++generation;
+		// named by the board's size now, not when it is written
+		final File snapshot = snapshotFile(next);
+
+		writer.execute(new Write() {
+			@Override
+			void write() throws IOException {
+				writeSnapshot(text, snapshot, next);
+			}
+		});
+	}
+
+	private File snapshotFile(int generation) {
+		return new File(directory, "board." + generation + "." + board.getWidth() + "x" + board.getHeight() + ".txt");
+	}
+
+	private File journalFile(int generation) {
+		return new File(directory, "journal." + generation + ".txt");
+	}
+
+	/**
+	 * Deletes the snapshots, journals and temporary files of every
+	 * generation but one.
+	 *
+	 * @param generation - the generation to keep, or -1 to delete them all.
+	 */
+	private void deleteOldFiles(int generation) {
+		for (String fileName : directory.list()) {
+			Matcher snapshot = SNAPSHOT_NAME.matcher(fileName);
+			Matcher journal = JOURNAL_NAME.matcher(fileName);
+			boolean current;
+
+			if (snapshot.matches())
+				current = Integer.parseInt(snapshot.group(1)) == generation;
+			else if (journal.matches())
+				current = Integer.parseInt(journal.group(1)) == generation;
+			else
+				current = !fileName.endsWith(".tmp");
+
+			if (!current)
+				new File(directory, fileName).delete();
+		}
+	}
+
+	/**
+	 * Writes a new snapshot of the whole board. This should be called
+	 * whenever the board changes other than by a recorded edit, such as when
+	 * a new board is started or loaded.
+	 */
+	public synchronized void compact() {
+		if (writer == null)
+			return;
+
+		try {
+			queueSnapshot();
+		} catch (IOException e) {
+			failed(e);
+		}
+	}
+
+	/**
+	 * Starts recording an edit.
+	 */
+	public synchronized void beginEdit() {
+		if (writer == null)
+			return;
+
+		edit = new StringBuilder();
+		unrecordable = false;
+	}
+
+	/**
+	 * Records that an item has been added to the board.
+	 *
+	 * @param item - the new item.
+	 */
+	public synchronized void added(IBoardItem item) {
+		if (edit == null)
+			return;
+
+		String name = NAME_PREFIX + nextName++;
+		names.put(item, name);
+
+		if (item instanceof Ball) {
+			Ball ball = (Ball) item;
+			// Ball <name> <x> <y> <vx> <vy>
+			edit.append("Ball ").append(name).append(String.format(Locale.ROOT, " %f %f %f %f\n",
+					ball.getX(), ball.getY(), ball.getXVelocity(), ball.getYVelocity()));
+		} else if (item instanceof IGizmo) {
+			IGizmo gizmo = (IGizmo) item;
+			int type = BinaryBoardFormat.typeOf(gizmo);
+			int x = gizmo.getX(), y = gizmo.getY();
+
+			if (type == BinaryBoardFormat.ABSORBER) {
+				// Absorber <name> <x1> <y1> <x2> <y2>
+				edit.append("Absorber ").append(name).append(' ').append(x).append(' ').append(y)
+						.append(' ').append(x + gizmo.getWidth()).append(' ').append(y + gizmo.getHeight()).append('\n');
+			} else {
+				// <type> <name> <x> <y>
+				edit.append(BinaryBoardFormat.TYPE_NAMES[type]).append(' ').append(name)
+						.append(' ').append(x).append(' ').append(y).append('\n');
+			}
+
+			// right flippers start rotated by one
+			int rotations = gizmo.getOrientation() - (type == BinaryBoardFormat.RIGHT_FLIPPER ? 1 : 0);
+
+			for (int i = 0; i < rotations; i++)
+				edit.append("Rotate ").append(name).append('\n');
+		} else {
+			unrecordable = true;
+		}
+	}
+
+	/**
+	 * Records that a gizmo or ball has been moved.
+	 *
+	 * @param item - the item, at its new position.
+	 */
+	public synchronized void moved(IBoardItem item) {
+		String name = nameOf(item);
+
+		if (name == null)
+			return;
+
+		// Move <name> <x> <y>
+		if (item instanceof Ball) {
+			Ball ball = (Ball) item;
+			edit.append("Move ").append(name).append(String.format(Locale.ROOT, " %f %f\n", ball.getX(), ball.getY()));
+		} else if (item instanceof IGizmo) {
+			IGizmo gizmo = (IGizmo) item;
+			edit.append("Move ").append(name).append(' ').append(gizmo.getX())
+					.append(' ').append(gizmo.getY()).append('\n');
+		}
+	}
+
+	/**
+	 * Records that a gizmo has been rotated once.
+	 *
+	 * @param gizmo - the rotated gizmo.
+	 */
+	public synchronized void rotated(IGizmo gizmo) {
+		String name = nameOf(gizmo);
+
+		if (name != null) {
+			// Rotate <name>
+			edit.append("Rotate ").append(name).append('\n');
+		}
+	}
+
+	/**
+	 * Records that an item is being removed from the board. This must be
+	 * called before any connections or key links to the item are removed,
+	 * as deleting an item in a board file leaves them in place, so they are
+	 * disconnected first.
+	 *
+	 * @param item - the item being removed.
+	 */
+	public synchronized void removing(IBoardItem item) {
+		String name = nameOf(item);
+
+		if (name == null)
+			return;
+
+		for (int key : triggerHandler.getKeysUp(item))
+			keyDisconnected(key, true, item);
+
+		for (int key : triggerHandler.getKeysDown(item))
+			keyDisconnected(key, false, item);
+
+		for (IGizmo gizmo : board.getGizmos()) {
+			if (gizmo == item)
+				continue;
+
+			// once for each time it is connected
+			for (IBoardItem connected : gizmo.getConnectedItems()) {
+				if (connected == item)
+					disconnected(gizmo, item);
+			}
+		}
+
+		// Delete <name>
+		edit.append("Delete ").append(name).append('\n');
+		names.remove(item);
+	}
+
+	/**
+	 * Records that an item has been connected to another.
+	 *
+	 * @param source - the item which triggers the connection.
+	 * @param target - the item it triggers.
+	 */
+	public synchronized void connected(IBoardItem source, IBoardItem target) {
+		String sourceName = nameOf(source);
+		String targetName = nameOf(target);
+
+		if (sourceName != null && targetName != null) {
+			// Connect <name> <name>
+			edit.append("Connect ").append(sourceName).append(' ').append(targetName).append('\n');
+		}
+	}
+
+	/**
+	 * Records that one connection from an item to another has been removed.
+	 *
+	 * @param source - the item which triggered the connection.
+	 * @param target - the item it triggered.
+	 */
+	public synchronized void disconnected(IBoardItem source, IBoardItem target) {
+		String sourceName = nameOf(source);
+		String targetName = nameOf(target);
+
+		if (sourceName != null && targetName != null) {
+			// Disconnect <name> <name>
+			edit.append("Disconnect ").append(sourceName).append(' ').append(targetName).append('\n');
+		}
+	}
+
+	/**
+	 * Records that a key has been linked to an item.
+	 *
+	 * @param key - the key code.
+	 * @param up - true if the key's release triggers the item, false if its press does.
+	 * @param item - the linked item.
+	 */
+	public synchronized void keyConnected(int key, boolean up, IBoardItem item) {
+		String name = nameOf(item);
+
+		if (name != null) {
+			// KeyConnect key <key> <direction> <name>
+			edit.append("KeyConnect key ").append(key).append(up ? " up " : " down ")
+					.append(name).append('\n');
+		}
+	}
+
+	/**
+	 * Records that one link from a key to an item has been removed.
+	 *
+	 * @param key - the key code.
+	 * @param up - true if the key's release triggered the item, false if its press did.
+	 * @param item - the unlinked item.
+	 */
+	public synchronized void keyDisconnected(int key, boolean up, IBoardItem item) {
+		String name = nameOf(item);
+
+		if (name != null) {
+			// KeyDisconnect key <key> <direction> <name>
+			edit.append("KeyDisconnect key ").append(key).append(up ? " up " : " down ")
+					.append(name).append('\n');
+		}
+	}
+
+	/**
+	 * Gets the name of an item in the journal, or null if the item has none
+	 * or no edit is being recorded.
+	 */
+	private String nameOf(IBoardItem item) {
+		if (edit == null)
+			return null;
+
+		String name = names.get(item);
+
+		// items made while running, such as the balls of a multiball gizmo, aren't named
+		if (name == null)
+			unrecordable = true;
+
+		return name;
+	}
+
+	/**
+	 * Finishes recording an edit, appending it to the journal, or writing a
+	 * new snapshot if the edit couldn't be journalled or the journal is full.
+	 */
+	public synchronized void endEdit() {
+		if (edit == null)
+			return;
+
+		String commands = edit.toString();
+		edit = null;
+
+		try {
+			if (unrecordable || entries >= COMPACT_AFTER) {
+				queueSnapshot();
+			} else if (!commands.isEmpty()) {
+				final byte[] bytes = commands.getBytes("US-ASCII");
+				entries++;
+
+				writer.execute(new Write() {
+					@Override
+					void write() throws IOException {
+						// one write, so a crash can only lose the end of the last edit
+						journal.write(bytes);
+					}
+				});
+			}
+		} catch (IOException e) {
+			failed(e);
+		}
+	}
+
+	/**
+	 * Stops keeping the journal after it couldn't be written. This can be
+	 * called on any thread, the files are closed once the writer has done
+	 * what it was given before.
+	 */
+	private synchronized void failed(final IOException e) {
+		if (writer == null)
+			return;
+
+		writer.execute(new Write() {
+			@Override
+			void write() throws IOException {
+				throw e;
+			}
+		});
+
+		stopWriter();
+	}
+
+	/**
+	 * Stops the writer after what it has been given, without waiting.
+	 */
+	private synchronized void stopWriter() {
+		if (writer != null) {
+			writer.shutdown();
+			writer = null;
+		}
+
+		edit = null;
+	}
+
+	/**
+	 * Stops keeping the journal and deletes its files, once what has been
+	 * journalled is written. This should be called when the application
+	 * closes normally.
+	 */
+	public void close() {
+		ExecutorService writer;
+
+		synchronized (this) {
+			writer = this.writer;
+
+			if (writer == null)
+				return;
+
+			writer.execute(new Write() {
+				@Override
+				void write() throws IOException {
+					journal.close();
+					journal = null;
+					deleteOldFiles(-1);
+					unlock();
+					new File(directory, LOCK_NAME).delete();
+				}
+			});
+
+			stopWriter();
+		}
+
+		// not holding the lock, as a write failing takes it
+		boolean interrupted = false;
+
+		while (true) {
+			try {
+				if (writer.awaitTermination(1, TimeUnit.MINUTES))
+					break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	private void unlock() {
+		if (lock == null)
+			return;
+
+		try {
+			lock.release();
+			lockFile.close();
+		} catch (IOException e) {
+			// the lock goes with the file when the process ends
+		}
+
+		lock = null;
+		lockFile = null;
+	}
+
+	/**
+	 * Something for the writer to write. Once a write has failed the rest
+	 * are skipped, the files are left as they are so the board can still be
+	 * recovered as it was when the journal was last written, and the error
+	 * is passed to CompressedFiles' error listener.
+	 */
+	private abstract class Write implements Runnable {
+
+		abstract void write() throws IOException;
+
+		@Override
+		public void run() {
+			if (broken)
+				return;
+
+			try {
+				write();
+			} catch (IOException e) {
+				broken = true;
+				CompressedFiles.failed(directory.getPath(), e);
+				stopWriter();
+
+				try {
+					if (journal != null)
+						journal.close();
+				} catch (IOException closeError) {
+					// already failed
+				}
+
+				journal = null;
+				unlock();
+			}
+		}
+	}
+}
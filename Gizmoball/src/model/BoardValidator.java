@@ -0,0 +1,484 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import exceptions.BadFileException;
+
+/**
+ * Checks a text board file without loading it. The commands are followed
+ * as Loader would run them, keeping only the name, place and links of each
+ * item, and then the board they leave is checked.
+ *
+ * Errors are things which would stop the file loading, or make it load a
+ * board which fails when it runs: lines which don't match the grammar,
+ * names used twice or before they exist, referring to OuterWalls when no
+ * item has that name and rotating an item which can't be rotated. Warnings
+ * are things which load but are probably mistakes: an item given the
+ * reserved OuterWalls name, gizmos which overlap or are off the board,
+ * balls which start off the board or inside a gizmo, links to items which
+ * were later deleted, and gizmos connected in a cycle.
+ *
+ * A validator keeps nothing between files, but it can only check one file
+ * at a time.
+ */
+public class BoardValidator {
+
+	private static final String OUTER_WALLS = "OuterWalls";
+
+	/**
+	 * Something wrong with a board file.
+	 */
+	public static class Problem {
+		// the line it was found on, counting from 1
+		public final int line;
+		public final boolean error;
+		public final String message;
+
+		Problem(int line, boolean error, String message) {
+			this.line = line;
+			this.error = error;
+			this.message = message;
+		}
+	}
+
+	// orders problems by the line they were found on
+	private static final Comparator<Problem> BY_LINE = new Comparator<Problem>() {
+		@Override
+		public int compare(Problem a, Problem b) {
+			return a.line < b.line ? -1 : (a.line == b.line ? 0 : 1);
+		}
+	};
+
+	private int width, height;
+	private BoardCommandParser parser = new BoardCommandParser();
+	private BoardCommand command = new BoardCommand();
+	private List<Problem> problems;
+	private Map<String, Item> items;
+	private List<Item> placed;
+	private List<Link> connections;
+	private List<Link> keyLinks;
+
+	/**
+	 * Creates a validator for boards of a size.
+	 *
+	 * @param width - the width of the board.
+	 * @param height - the height of the board.
+	 */
+	public BoardValidator(int width, int height) {
+		this.width = width;
+		this.height = height;
+	}
+
+	/**
+	 * Checks a board file.
+	 *
+	 * @param input - the text of the file, which is closed afterwards.
+	 * @return The problems found, in the order of the lines they are on.
+	 * @throws IOException Thrown if there is a problem reading the file.
+	 */
+	public List<Problem> validate(Reader input) throws IOException {
+		BufferedReader reader = new BufferedReader(input);
+		problems = new ArrayList<Problem>();
+		items = new HashMap<String, Item>();
+		placed = new ArrayList<Item>();
+		connections = new ArrayList<Link>();
+		keyLinks = new ArrayList<Link>();
+
+		try {
+			String line;
+			int lineNumber = 0;
+
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+
+				if (line.isEmpty())
+					continue;
+
+				try {
+					parser.parse(line, command);
+				} catch (BadFileException e) {
+					error(lineNumber, e.getMessage());
+					continue;
+				}
+
+				execute(lineNumber);
+			}
+		} finally {
+			reader.close();
+		}
+
+		List<Item> live = new ArrayList<Item>();
+
+		for (Item item : placed) {
+			if (item.deletedAt == 0)
+				live.add(item);
+		}
+
+		checkPlaces(live);
+		checkLinks();
+		checkCycles(live);
+
+		List<Problem> result = problems;
+		problems = null;
+		items = null;
+		placed = null;
+		connections = null;
+		keyLinks = null;
+
+		// the board checks are found item by item, put them in line order with
+		// a stable sort, so problems on the same line stay in the order found
+		Collections.sort(result, BY_LINE);
+		return result;
+	}
+
+	/**
+	 * Follows one command as Loader would.
+	 */
+	private void execute(int line) {
+		String name = command.name;
+		Item item;
+
+		switch (command.kind) {
+		case Gizmo:
+			if (add(line)) {
+				boolean big = command.gizmoOp.endsWith("Flipper") || command.gizmoOp.equals("Spinner");
+				item = new Item(name, Item.GIZMO, line);
+				item.rotatable = command.gizmoOp.endsWith("Flipper") || command.gizmoOp.equals("Triangle");
+				item.place(command.x1, command.y1, big ? 2 : 1, big ? 2 : 1);
+				put(item);
+			}
+			break;
+
+		case Absorber:
+			if (add(line)) {
+				item = new Item(name, Item.GIZMO, line);
+				item.place(command.x1, command.y1, command.x2 - command.x1, command.y2 - command.y1);
+				item.absorber = true;
+				put(item);
+			}
+			break;
+
+		case Ball:
+			if (add(line)) {
+				item = new Item(name, Item.BALL, line);
+				item.ballX = command.xd;
+				item.ballY = command.yd;
+				put(item);
+			}
+			break;
+
+		case Rotate:
+			item = find(name, line);
+
+			if (item != null && !item.rotatable)
+				error(line, name + " can't be rotated");
+			break;
+
+		case Delete:
+			item = find(name, line);
+
+			if (item != null) {
+				item.deletedAt = line;
+				items.remove(name);
+			}
+			break;
+
+		case MoveInt:
+		case MoveFloat:
+			item = find(name, line);
+
+			if (item == null)
+				break;
+
+			item.line = line;
+
+			if (item.kind == Item.BALL) {
+				item.ballX = command.kind == BoardCommand.Kind.MoveInt ? command.x1 : command.xd;
+				item.ballY = command.kind == BoardCommand.Kind.MoveInt ? command.y1 : command.yd;
+			} else if (command.kind == BoardCommand.Kind.MoveInt) {
+				item.place(command.x1, command.y1, item.width, item.height);
+			} else {
+				item.place((int) command.xd, (int) command.yd, item.width, item.height);
+			}
+			break;
+
+		case Connect:
+			item = find(name, line);
+			Item target = find(command.name2, line);
+
+			if (item != null && target != null) {
+				connections.add(new Link(item, target, line));
+				item.connections.add(target);
+			}
+			break;
+
+		case KeyConnect:
+			item = find(name, line);
+
+			if (item != null)
+				keyLinks.add(new Link(null, item, line));
+			break;
+
+		case Gravity:
+		case Friction:
+			break;
+		}
+	}
+
+	/**
+	 * Checks that a new item's name is free.
+	 */
+	private boolean add(int line) {
+		String name = command.name;
+
+		// Loader lets an item take the name, and then refers to it by the name
+		if (name.equals(OUTER_WALLS))
+			warning(line, OUTER_WALLS + " is reserved for the outer walls");
+
+		Item existing = items.get(name);
+
+		if (existing != null) {
+			error(line, name + " is already used on line " + existing.declaredAt);
+			return false;
+		}
+
+		return true;
+	}
+
+	private void put(Item item) {
+		items.put(item.name, item);
+		placed.add(item);
+	}
+
+	/**
+	 * Finds an item a command refers to.
+	 *
+	 * @return The item, or null if there isn't one.
+	 */
+	private Item find(String name, int line) {
+		Item item = items.get(name);
+
+		if (item == null && name.equals(OUTER_WALLS)) {
+			// Loader accepts the name, but has no item for it
+			error(line, OUTER_WALLS + " can't be used in a command");
+		} else if (item == null) {
+			error(line, name + " doesn't exist");
+		}
+
+		return item;
+	}
+
+	/**
+	 * Checks the gizmos and balls left on the board are on it and that no
+	 * two gizmos share a square.
+	 */
+	private void checkPlaces(List<Item> live) {
+		// the number of the gizmo in each square, from 1
+		int[] squares = new int[width * height];
+		Set<Long> overlaps = new HashSet<Long>();
+
+		for (int i = 0; i < live.size(); i++) {
+			Item item = live.get(i);
+
+			if (item.kind != Item.GIZMO)
+				continue;
+
+			if (item.width <= 0 || item.height <= 0) {
+				warning(item.line, item.name + " has no area");
+				continue;
+			}
+
+			if (item.x < 0 || item.y < 0 || item.x + item.width > width || item.y + item.height > height)
+				warning(item.line, item.name + " is outside the " + width + "x" + height + " board");
+
+			for (int y = Math.max(item.y, 0); y < Math.min(item.y + item.height, height); y++) {
+				for (int x = Math.max(item.x, 0); x < Math.min(item.x + item.width, width); x++) {
+					int other = squares[y * width + x] - 1;
+
+					if (other < 0) {
+						squares[y * width + x] = i + 1;
+					} else if (overlaps.add(((long) other << 32) | i)) {
+						warning(item.line, item.name + " overlaps " + live.get(other).name);
+					}
+				}
+			}
+		}
+
+		for (Item item : live) {
+			if (item.kind != Item.BALL)
+				continue;
+
+			if (item.ballX < 0 || item.ballY < 0 || item.ballX > width || item.ballY > height) {
+				warning(item.line, item.name + " is outside the " + width + "x" + height + " board");
+				continue;
+			}
+
+			int x = Math.min((int) item.ballX, width - 1), y = Math.min((int) item.ballY, height - 1);
+			int gizmo = squares[y * width + x] - 1;
+
+			// a ball can start in an absorber
+			if (gizmo >= 0 && !live.get(gizmo).absorber)
+				warning(item.line, item.name + " starts inside " + live.get(gizmo).name);
+		}
+	}
+
+	/**
+	 * Checks for links to items which were deleted after being linked.
+	 * Loader keeps these, so the deleted item is still triggered.
+	 */
+	private void checkLinks() {
+		for (Link link : connections) {
+			if (link.from.deletedAt == 0 && link.to.deletedAt != 0)
+				warning(link.line, link.from.name + " is connected to " + link.to.name
+						+ ", which is deleted on line " + link.to.deletedAt);
+		}
+
+		for (Link link : keyLinks) {
+			if (link.to.deletedAt != 0)
+				warning(link.line, "a key is linked to " + link.to.name
+						+ ", which is deleted on line " + link.to.deletedAt);
+		}
+	}
+
+	/**
+	 * Finds gizmos which are connected in a cycle, using Tarjan's algorithm
+	 * for strongly connected components without recursion, so long chains
+	 * can't overflow the stack. A gizmo connected to itself is left out, as
+	 * that is how an absorber is made to fire whatever it catches.
+	 */
+	private void checkCycles(List<Item> live) {
+		List<Item> stack = new ArrayList<Item>();
+		List<Item> path = new ArrayList<Item>();
+		int index = 0;
+
+		for (Item root : live) {
+			if (root.index >= 0 || root.connections.isEmpty())
+				continue;
+
+			root.index = root.lowLink = index++;
+			root.onStack = true;
+			stack.add(root);
+			path.add(root);
+
+			while (!path.isEmpty()) {
+				Item item = path.get(path.size() - 1);
+
+				if (item.next < item.connections.size()) {
+					Item target = item.connections.get(item.next++);
+
+					if (target.deletedAt != 0)
+						continue;
+
+					if (target.index < 0) {
+						target.index = target.lowLink = index++;
+						target.onStack = true;
+						stack.add(target);
+						path.add(target);
+					} else if (target.onStack) {
+						item.lowLink = Math.min(item.lowLink, target.index);
+					}
+					continue;
+				}
+
+				path.remove(path.size() - 1);
+
+				if (!path.isEmpty()) {
+					Item parent = path.get(path.size() - 1);
+					parent.lowLink = Math.min(parent.lowLink, item.lowLink);
+				}
+
+				if (item.lowLink != item.index)
+					continue;
+
+				// item is the root of a component, which is the top of the stack
+				int start = stack.lastIndexOf(item);
+				List<Item> component = stack.subList(start, stack.size());
+
+				if (component.size() > 1) {
+					StringBuilder names = new StringBuilder();
+
+					for (Item member : component) {
+						if (names.length() > 0)
+							names.append(", ");
+
+						names.append(member.name);
+					}
+
+					warning(item.declaredAt, "connections form a cycle through " + names);
+				}
+
+				for (Item member : component)
+					member.onStack = false;
+
+				component.clear();
+			}
+		}
+	}
+
+	private void error(int line, String message) {
+		problems.add(new Problem(line, true, message));
+	}
+
+	private void warning(int line, String message) {
+		problems.add(new Problem(line, false, message));
+	}
+
+	/**
+	 * What is known about an item.
+	 */
+	private static class Item {
+		static final int GIZMO = 0, BALL = 1;
+
+		final String name;
+		final int kind;
+		final int declaredAt;
+		// the line it was last put in place on
+		int line;
+		int deletedAt;
+		boolean rotatable, absorber;
+		int x, y, width, height;
+		double ballX, ballY;
+		List<Item> connections = new ArrayList<Item>(1);
+		// for finding cycles
+		int index = -1, lowLink, next;
+		boolean onStack;
+
+		Item(String name, int kind, int line) {
+			this.name = name;
+			this.kind = kind;
+			this.declaredAt = line;
+			this.line = line;
+		}
+
+		void place(int x, int y, int width, int height) {
+			this.x = x;
+			this.y = y;
+			this.width = width;
+			this.height = height;
+		}
+	}
+
+	/**
+	 * A connection, or a key link which has no item it is from.
+	 */
+	private static class Link {
+		final Item from, to;
+		final int line;
+
+		Link(Item from, Item to, int line) {
+			this.from = from;
+			this.to = to;
+			this.line = line;
+		}
+	}
+}
@@ -0,0 +1,174 @@
+package model;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import model.gizmos.AbsorberGizmo;
+import model.gizmos.IGizmo;
+import model.gizmos.ISpinningGizmo;
+import exceptions.BadFileException;
+
+/**
+ * Loads a checkpoint saved by CheckpointSaver. The board is read from the
+ * mapped file as BinaryLoader reads it, and the state of every item is then
+ * restored before any of them are put on the board.
+ */
+public class CheckpointLoader implements IBoardLoader {
+
+	private RandomAccessFile file;
+	private BinaryLoader boardLoader;
+	private Board board;
+	private ILoadProgressListener listener;
+
+	public CheckpointLoader(String fileName, Board board) throws FileNotFoundException {
+		this.board = board;
+
+		CompressedFiles.await(fileName);
+		file = new RandomAccessFile(fileName, "r");
+		boardLoader = new BinaryLoader(board);
+	}
+
+	/**
+	 * Creates a loader for checkpoints which are already in memory.
+	 */
+	CheckpointLoader(Board board) {
+		this.board = board;
+
+		boardLoader = new BinaryLoader(board);
+	}
+
+	/**
+	 * Checks whether a file is a checkpoint, from its magic number.
+	 *
+	 * @param fileName - the file to check.
+	 * @throws IOException Thrown if there is a problem reading the file.
+	 */
+	public static boolean isCheckpointFile(String fileName) throws IOException {
+		return BinaryBoardFormat.isCheckpointFile(fileName);
+	}
+
+	public void setLoadProgressListener(ILoadProgressListener listener) {
+		this.listener = listener;
+	}
+
+	public void load(IPhysicsEngine engine) throws BadFileException, IOException {
+		FileChannel channel = file.getChannel();
+
+		try {
+			ByteBuffer buffer = CompressedFiles.read(channel);
+			load(buffer, engine);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Loads a checkpoint which takes up the whole of a buffer.
+	 */
+	void load(ByteBuffer buffer, IPhysicsEngine engine) throws BadFileException {
+		if (buffer.capacity() < 8 || buffer.getInt(0) != BinaryBoardFormat.CHECKPOINT_MAGIC)
+			throw new BadFileException("not a checkpoint file");
+
+		int version = buffer.getInt(4);
+
+		if (version != BinaryBoardFormat.CHECKPOINT_VERSION)
+			throw new BadFileException("unsupported checkpoint version " + version);
+
+		if (buffer.capacity() < BinaryBoardFormat.CHECKPOINT_HEADER_SIZE)
+			throw new BadFileException("checkpoint file is truncated");
+
+		int boardSize = buffer.getInt(8);
+		int boardAt = BinaryBoardFormat.CHECKPOINT_HEADER_SIZE;
+
+		if (boardSize < 0 || boardAt + (long) boardSize > buffer.capacity())
+			throw new BadFileException("checkpoint file is truncated");
+
+		buffer.position(boardAt);
+		buffer.limit(boardAt + boardSize);
+		IBoardItem[] items = boardLoader.read(buffer.slice(), engine);
+		buffer.clear();
+
+		int gizmoCount = 0;
+
+		while (gizmoCount < items.length && items[gizmoCount] instanceof IGizmo)
+			gizmoCount++;
+
+		int at = boardAt + boardSize;
+
+		if (at + (long) gizmoCount * BinaryBoardFormat.GIZMO_STATE_SIZE
+				+ (long) (items.length - gizmoCount) * BinaryBoardFormat.BALL_STATE_SIZE > buffer.capacity())
+			throw new BadFileException("checkpoint file is truncated");
+
+		for (int i = 0; i < gizmoCount; i++, at += BinaryBoardFormat.GIZMO_STATE_SIZE) {
+			IGizmo gizmo = (IGizmo) items[i];
+			((BoardItemBase) gizmo).setTriggeredState((buffer.getInt(at) & BinaryBoardFormat.TRIGGERED) != 0);
+
+			if (gizmo instanceof ISpinningGizmo) {
+				ISpinningGizmo spinning = (ISpinningGizmo) gizmo;
+				// a flipper stops at either end, so the angle goes first
+				spinning.setAngle(buffer.getDouble(at + 8));
+				spinning.setAngularMomentum(buffer.getDouble(at + 16));
+			}
+		}
+
+		for (int i = gizmoCount; i < items.length; i++, at += BinaryBoardFormat.BALL_STATE_SIZE) {
+			Ball ball = (Ball) items[i];
+			int flags = buffer.getInt(at);
+			ball.setTriggeredState((flags & BinaryBoardFormat.TRIGGERED) != 0);
+
+			if ((flags & BinaryBoardFormat.CAPTURED) != 0)
+				ball.capture();
+		}
+
+		for (int i = 0; i < gizmoCount; i++) {
+			if (!(items[i] instanceof AbsorberGizmo))
+				continue;
+
+			if (at + 8 > buffer.capacity())
+				throw new BadFileException("checkpoint file is truncated");
+
+			int ejecting = buffer.getInt(at);
+			int count = buffer.getInt(at + 4);
+			at += 8;
+
+			if (count < 0 || at + 4L * count > buffer.capacity())
+				throw new BadFileException("checkpoint file is truncated");
+
+			List<Ball> captured = new ArrayList<Ball>(count);
+
+			for (int j = 0; j < count; j++, at += 4)
+				captured.add(getBall(items, gizmoCount, buffer.getInt(at)));
+
+			((AbsorberGizmo) items[i]).setCapturedBalls(captured,
+					ejecting == -1 ? null : getBall(items, gizmoCount, ejecting));
+		}
+
+		//load the items into the board as one change
+		if (listener == null)
+			board.addAll(Arrays.asList(items));
+		else
+			listener.loadProgressed(Arrays.asList(items), 1, 1);
+	}
+
+	public Map<Integer, List<IBoardItem>> getKeyUpTriggers() {
+		return boardLoader.getKeyUpTriggers();
+	}
+
+	public Map<Integer, List<IBoardItem>> getKeyDownTriggers() {
+		return boardLoader.getKeyDownTriggers();
+	}
+
+	private Ball getBall(IBoardItem[] items, int gizmoCount, int index) throws BadFileException {
+		if (index < gizmoCount || index >= items.length)
+			throw new BadFileException("invalid ball number " + index);
+
+		return (Ball) items[index];
+	}
+}
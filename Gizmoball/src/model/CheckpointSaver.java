@@ -0,0 +1,110 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.List;
+
+import model.gizmos.AbsorberGizmo;
+import model.gizmos.IGizmo;
+import model.gizmos.ISpinningGizmo;
+import controller.TriggerHandler;
+
+/**
+ * Saves a checkpoint of a board, as described in BinaryBoardFormat. This
+ * holds everything which changes while the board runs as well as its layout,
+ * so it can be saved between two frames and the run carried on from it.
+ * Every value is written as it is held, so nothing is rounded.
+ */
+public class CheckpointSaver {
+
+	private String fileName;
+
+	public CheckpointSaver(String fileName) {
+		this.fileName = fileName;
+	}
+
+	public void save(IPhysicsEngine engine, Board board, TriggerHandler triggerhandler) throws IOException {
+		ByteBuffer[] buffers = write(engine, board, triggerhandler);
+		ByteBuffer last = buffers[buffers.length - 1];
+		GatheringByteChannel channel = CompressedFiles.openOutput(fileName);
+
+		try {
+			while (last.hasRemaining())
+				channel.write(buffers);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Writes a checkpoint into buffers, which hold the whole checkpoint
+	 * between them in order and are ready to be written out.
+	 */
+	ByteBuffer[] write(IPhysicsEngine engine, Board board, TriggerHandler triggerhandler) {
+		BinarySaver boardSaver = new BinarySaver(fileName);
+		ByteBuffer boardBuffer = boardSaver.write(engine, board, triggerhandler);
+		List<IGizmo> gizmos = board.getGizmos();
+		List<Ball> balls = board.getBalls();
+		int absorbersSize = 0;
+
+		for (IGizmo gizmo : gizmos) {
+			if (gizmo instanceof AbsorberGizmo)
+				absorbersSize += 8 + 4 * ((AbsorberGizmo) gizmo).getCapturedBalls().size();
+		}
+
+		ByteBuffer header = ByteBuffer.allocate(BinaryBoardFormat.CHECKPOINT_HEADER_SIZE);
+		header.putInt(BinaryBoardFormat.CHECKPOINT_MAGIC);
+		header.putInt(BinaryBoardFormat.CHECKPOINT_VERSION);
+		header.putInt(boardBuffer.remaining());
+		header.flip();
+
+		ByteBuffer state = ByteBuffer.allocate(gizmos.size() * BinaryBoardFormat.GIZMO_STATE_SIZE
+				+ balls.size() * BinaryBoardFormat.BALL_STATE_SIZE + absorbersSize);
+
+		for (IGizmo gizmo : gizmos) {
+			state.putInt(gizmo.getTriggeredState() ? BinaryBoardFormat.TRIGGERED : 0);
+			state.putInt(0);
+
+			if (gizmo instanceof ISpinningGizmo) {
+				state.putDouble(((ISpinningGizmo) gizmo).getAngle());
+				state.putDouble(((ISpinningGizmo) gizmo).getAngularMomentum());
+			} else {
+				state.putDouble(0);
+				state.putDouble(0);
+			}
+		}
+
+		for (Ball ball : balls) {
+			state.putInt((ball.getTriggeredState() ? BinaryBoardFormat.TRIGGERED : 0)
+					| (ball.getIsCaptured() ? BinaryBoardFormat.CAPTURED : 0));
+		}
+
+		for (IGizmo gizmo : gizmos) {
+			if (gizmo instanceof AbsorberGizmo) {
+				AbsorberGizmo absorber = (AbsorberGizmo) gizmo;
+				Ball ejecting = absorber.getEjectingBall();
+				int countAt = state.position() + 4;
+				int count = 0;
+
+				state.putInt(ejecting == null ? -1 : boardSaver.numberOf(ejecting));
+				state.putInt(0);
+
+				for (Ball ball : absorber.getCapturedBalls()) {
+					// balls which have been deleted from the board are dropped
+					int number = boardSaver.numberOf(ball);
+
+					if (number >= 0) {
+						state.putInt(number);
+						count++;
+					}
+				}
+
+				state.putInt(countAt, count);
+			}
+		}
+
+		state.flip();
+		return new ByteBuffer[] { header, boardBuffer, state };
+	}
+}
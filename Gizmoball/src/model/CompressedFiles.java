@@ -0,0 +1,308 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Opens the files boards, checkpoints and replays are kept in, which may be
+ * gzipped. A file is read as compressed if it starts with the gzip magic
+ * number, whatever it is called, and written compressed if its name ends
+ * with SUFFIX. Compressing is done on a thread of its own by
+ * CompressingChannel, so saving doesn't hold up the thread saving.
+ *
+ * A save returns before its file has been written out. Opening a file still
+ * being written waits for it to finish, and an error writing it is passed to
+ * the error listener. Without a listener the error is kept for awaitAll to
+ * throw, so it is never lost.
+ */
+public final class CompressedFiles {
+
+	public static final String SUFFIX = ".gz";
+
+	private static final int GZIP_MAGIC = 0x1f8b;
+	private static final int BUFFER_SIZE = 64 * 1024;
+	// the largest array the JVM can make
+	private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+	// the files still being written, by absolute path
+	private static Map<String, CompressingChannel> writing = new HashMap<String, CompressingChannel>();
+	private static ICompressionErrorListener errorListener;
+	// errors there was no listener to tell, for awaitAll to throw
+	private static List<IOException> unreported = new ArrayList<IOException>();
+
+	private CompressedFiles() {
+	}
+
+	/**
+	 * Sets what is told when a file fails to be written after its save has
+	 * returned. Without one the error is thrown by awaitAll.
+	 *
+	 * @param listener - the listener, or null.
+	 */
+	public static synchronized void setErrorListener(ICompressionErrorListener listener) {
+		errorListener = listener;
+	}
+
+	/**
+	 * Waits for a file to be written out, if it is still being compressed.
+	 *
+	 * @param fileName - the file to wait for.
+	 */
+	public static void await(String fileName) {
+		CompressingChannel channel;
+
+		synchronized (CompressedFiles.class) {
+			channel = writing.get(new File(fileName).getAbsolutePath());
+		}
+
+		if (channel != null)
+			await(channel);
+	}
+
+	/**
+	 * Waits for every file still being compressed to be written out, so the
+	 * application can exit without cutting one short.
+	 * 
+	 * @throws IOException Thrown if writing a file failed and there was no
+	 *         error listener to tell, the first such error is the cause.
+	 */
+	public static void awaitAll() throws IOException {
+		List<CompressingChannel> channels;
+
+		synchronized (CompressedFiles.class) {
+			channels = new ArrayList<CompressingChannel>(writing.values());
+		}
+
+		for (CompressingChannel channel : channels)
+			await(channel);
+
+		List<IOException> errors;
+
+		synchronized (CompressedFiles.class) {
+			errors = unreported;
+			unreported = new ArrayList<IOException>();
+		}
+
+		if (!errors.isEmpty()) {
+			IOException first = errors.get(0);
+			String more = errors.size() > 1 ? " (and " + (errors.size() - 1) + " more)" : "";
+			throw new IOException(first.getMessage() + more, first);
+		}
+	}
+
+	private static void await(CompressingChannel channel) {
+		boolean interrupted = false;
+
+		while (true) {
+			try {
+				channel.await();
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	/**
+	 * Called by a channel once its file has been written out, or has failed.
+	 *
+	 * @param error - the error which hasn't been thrown to the writer, or null.
+	 */
+	static void finished(String fileName, CompressingChannel channel, IOException error) {
+		synchronized (CompressedFiles.class) {
+			String path = new File(fileName).getAbsolutePath();
+
+			if (writing.get(path) == channel)
+				writing.remove(path);
+		}
+
+		if (error != null)
+			failed(fileName, error);
+	}
+
+	/**
+	 * Passes on an error writing a file which there is no caller left to
+	 * throw it to, telling the error listener or keeping it for awaitAll.
+	 *
+	 * @param fileName - the file being written.
+	 * @param error - what went wrong.
+	 */
+	static void failed(String fileName, IOException error) {
+		ICompressionErrorListener listener;
+
+		synchronized (CompressedFiles.class) {
+			listener = errorListener;
+
+			if (listener == null) {
+				unreported.add(new IOException("error writing " + fileName + ": " + error.getMessage(), error));
+				return;
+			}
+		}
+
+		listener.compressionFailed(fileName, error);
+	}
+
+	/**
+	 * Checks whether a file starts with the gzip magic number.
+	 *
+	 * @param fileName - the file to check.
+	 * @throws IOException Thrown if there is a problem reading the file.
+	 */
+	public static boolean isCompressed(String fileName) throws IOException {
+		await(fileName);
+
+		InputStream input = new FileInputStream(fileName);
+
+		try {
+			return isCompressed(input.read(), input.read());
+		} finally {
+			input.close();
+		}
+	}
+
+	private static boolean isCompressed(int first, int second) {
+		return first >= 0 && second >= 0 && ((first << 8) | second) == GZIP_MAGIC;
+	}
+
+	/**
+	 * Opens a file to read, decompressing it if it is compressed.
+	 *
+	 * @param fileName - the file to read.
+	 * @throws IOException Thrown if there is a problem opening the file.
+	 */
+	public static InputStream openInput(String fileName) throws IOException {
+		boolean compressed = isCompressed(fileName);
+		InputStream input = new FileInputStream(fileName);
+
+		if (!compressed)
+			return input;
+
+		try {
+			return new GZIPInputStream(input, BUFFER_SIZE);
+		} catch (IOException e) {
+			input.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Opens a text file to read, decompressing it if it is compressed. The
+	 * text is decoded as FileReader would decode it.
+	 *
+	 * @param fileName - the file to read.
+	 * @throws IOException Thrown if there is a problem opening the file.
+	 */
+	public static Reader openReader(String fileName) throws IOException {
+		return new InputStreamReader(openInput(fileName));
+	}
+
+	/**
+	 * Opens a file to write, compressing what is written if the name ends
+	 * with SUFFIX. A compressed file is still being written out after the
+	 * channel is closed.
+	 *
+	 * @param fileName - the file to write.
+	 * @throws IOException Thrown if there is a problem creating the file.
+	 */
+	public static GatheringByteChannel openOutput(String fileName) throws IOException {
+		return openOutput(fileName, false);
+	}
+
+	/**
+	 * Opens a file to write as openOutput does, but writes it out on another
+	 * thread even when it isn't compressed. This suits a file written a few
+	 * bytes at a time by a thread which mustn't wait for each write.
+	 *
+	 * @param fileName - the file to write.
+	 * @throws IOException Thrown if there is a problem creating the file.
+	 */
+	public static GatheringByteChannel openBufferedOutput(String fileName) throws IOException {
+		return openOutput(fileName, true);
+	}
+
+	private static GatheringByteChannel openOutput(String fileName, boolean buffered) throws IOException {
+		// an earlier save of the file mustn't write over this one
+		await(fileName);
+
+		FileOutputStream output = new FileOutputStream(fileName);
+		boolean compress = fileName.endsWith(SUFFIX);
+
+		if (!compress && !buffered)
+			return output.getChannel();
+
+		CompressingChannel channel = new CompressingChannel(fileName, output, compress);
+
+		synchronized (CompressedFiles.class) {
+			writing.put(new File(fileName).getAbsolutePath(), channel);
+		}
+
+		return channel;
+	}
+
+	/**
+	 * Reads the whole of a file. One which isn't compressed is mapped into
+	 * memory, and one which is is decompressed into an array. A compressed
+	 * file which has been cut short is read up to where it stops.
+	 *
+	 * @param channel - the file to read, which the caller closes. A compressed
+	 *        file's channel is closed once it has been read.
+	 * @throws IOException Thrown if there is a problem reading the file.
+	 */
+	static ByteBuffer read(FileChannel channel) throws IOException {
+		ByteBuffer magic = ByteBuffer.allocate(2);
+		channel.read(magic, 0);
+
+		if (magic.position() < 2 || !isCompressed(magic.get(0) & 0xff, magic.get(1) & 0xff))
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+		channel.position(0);
+
+		InputStream input = new GZIPInputStream(new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE),
+				BUFFER_SIZE);
+		// text and replays usually shrink to a fifth or less
+		byte[] bytes = new byte[(int) Math.min(Math.max(channel.size() * 5, BUFFER_SIZE), MAX_ARRAY_SIZE)];
+		int length = 0;
+
+		try {
+			int read;
+
+			while ((read = input.read(bytes, length, bytes.length - length)) > 0) {
+				length += read;
+
+				if (length == bytes.length) {
+					if (length == MAX_ARRAY_SIZE)
+						throw new IOException("file is too large to decompress");
+
+					bytes = Arrays.copyOf(bytes, (int) Math.min(bytes.length * 2L, MAX_ARRAY_SIZE));
+				}
+			}
+		} catch (EOFException e) {
+			// the rest of the file was never written
+		} finally {
+			// frees the inflater, this closes the channel as well
+			input.close();
+		}
+
+		return ByteBuffer.wrap(bytes, 0, length).slice();
+	}
+}
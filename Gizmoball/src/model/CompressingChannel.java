@@ -0,0 +1,209 @@
+package model;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.GatheringByteChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A channel which gzips what is written to it on a thread of its own. Writes
+ * are copied into one of a few buffers, and full buffers are queued for the
+ * thread to compress and write out, so a write only waits when every buffer
+ * is still queued. Closing hands the last buffer to the thread and returns
+ * without waiting for it to be written out. It can also write what it is
+ * given as it is, so that many small writes are made into a few large ones
+ * on the thread.
+ *
+ * If compressing or writing fails, the next write or the close throws the
+ * error. If it fails after the channel is closed, CompressedFiles is told
+ * so it can pass the error on.
+ */
+final class CompressingChannel implements GatheringByteChannel {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int BUFFER_COUNT = 8;
+	// queued to tell the thread there is nothing more
+	private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+	private BlockingQueue<ByteBuffer> full = new ArrayBlockingQueue<ByteBuffer>(BUFFER_COUNT + 1);
+	private BlockingQueue<ByteBuffer> empty = new ArrayBlockingQueue<ByteBuffer>(BUFFER_COUNT);
+	private ByteBuffer current;
+	private String fileName;
+	private Thread thread;
+	private volatile IOException error;
+	// whether the error has been thrown to the writer
+	private volatile boolean errorThrown;
+	private boolean open = true;
+
+	/**
+	 * Creates a channel which writes to a stream, closing it when the channel
+	 * is closed.
+	 *
+	 * @param fileName - the file the stream writes, to report errors with.
+	 * @param output - the stream to write the compressed bytes to.
+	 * @param compress - false to write the bytes without compressing them.
+	 * @throws IOException Thrown if the gzip header can't be written.
+	 */
+	CompressingChannel(String fileName, OutputStream output, boolean compress) throws IOException {
+		this.fileName = fileName;
+
+		final OutputStream compressed;
+
+		try {
+			compressed = compress ? new GZIPOutputStream(output, BUFFER_SIZE) : output;
+		} catch (IOException e) {
+			output.close();
+			throw e;
+		}
+
+		for (int i = 1; i < BUFFER_COUNT; i++)
+			empty.add(ByteBuffer.allocate(BUFFER_SIZE));
+
+		current = ByteBuffer.allocate(BUFFER_SIZE);
+
+		thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				compress(compressed);
+			}
+		}, compress ? "Compressor" : "File writer");
+		// the file is finished before the application exits
+		thread.setDaemon(false);
+		thread.start();
+	}
+
+	private void compress(OutputStream compressed) {
+		try {
+			ByteBuffer buffer;
+
+			while ((buffer = full.take()) != END) {
+				// after an error the buffers are only handed back, so writes don't block
+				if (error == null) {
+					try {
+						compressed.write(buffer.array(), 0, buffer.position());
+					} catch (IOException e) {
+						error = e;
+					}
+				}
+
+				buffer.clear();
+				empty.add(buffer);
+			}
+		} catch (InterruptedException e) {
+			error = new InterruptedIOException("interrupted while compressing");
+		} finally {
+			try {
+				compressed.close();
+			} catch (IOException e) {
+				if (error == null)
+					error = e;
+			}
+
+			CompressedFiles.finished(fileName, this, errorThrown ? null : error);
+		}
+	}
+
+	@Override
+	public int write(ByteBuffer source) throws IOException {
+		checkOpen();
+
+		int count = source.remaining();
+
+		while (source.hasRemaining()) {
+			if (!current.hasRemaining())
+				handOver();
+
+			ByteBuffer part = source.duplicate();
+			part.limit(part.position() + Math.min(source.remaining(), current.remaining()));
+			current.put(part);
+			source.position(part.position());
+		}
+
+		return count;
+	}
+
+	@Override
+	public long write(ByteBuffer[] sources, int offset, int length) throws IOException {
+		long count = 0;
+
+		for (int i = offset; i < offset + length; i++)
+			count += write(sources[i]);
+
+		return count;
+	}
+
+	@Override
+	public long write(ByteBuffer[] sources) throws IOException {
+		return write(sources, 0, sources.length);
+	}
+
+	/**
+	 * Queues the current buffer and takes an empty one, waiting for the
+	 * thread to finish with one if there aren't any.
+	 */
+	private void handOver() throws IOException {
+		try {
+			full.put(current);
+			current = empty.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted while compressing");
+		}
+
+		checkError();
+	}
+
+	private void checkOpen() throws IOException {
+		if (!open)
+			throw new ClosedChannelException();
+
+		checkError();
+	}
+
+	private void checkError() throws IOException {
+		if (error != null) {
+			errorThrown = true;
+			throw new IOException("compressing failed: " + error.getMessage(), error);
+		}
+	}
+
+	@Override
+	public boolean isOpen() {
+		return open;
+	}
+
+	/**
+	 * Hands what is left to the thread, which closes the stream once it has
+	 * written everything out. Only an error found before now is thrown.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (!open)
+			return;
+
+		open = false;
+
+		// decided before the thread can finish, so the error is only reported once
+		IOException failure = error;
+		errorThrown = failure != null;
+
+		// there is always room in the queue for every buffer and the end
+		full.add(current);
+		full.add(END);
+
+		if (failure != null)
+			throw new IOException("compressing failed: " + failure.getMessage(), failure);
+	}
+
+	/**
+	 * Waits for the thread to finish writing the file.
+	 */
+	void await() throws InterruptedException {
+		thread.join();
+	}
+}
@@ -0,0 +1,40 @@
+package model;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import exceptions.BadFileException;
+
+/**
+ * Reads a board file onto a board.
+ */
+public interface IBoardLoader {
+
+	/**
+	 * Adds the items in the file to the board and sets the physics settings.
+	 *
+	 * @param engine - the engine to set gravity and friction on.
+	 * @throws BadFileException Thrown if the file format is invalid.
+	 * @throws IOException Thrown if there is a problem reading the file.
+	 */
+	void load(IPhysicsEngine engine) throws BadFileException, IOException;
+
+	/**
+	 * Makes the loader hand the items to a listener as they load, rather
+	 * than adding them to the board.
+	 *
+	 * @param listener - the listener, or null to add the items to the board.
+	 */
+	void setLoadProgressListener(ILoadProgressListener listener);
+
+	/**
+	 * Gets the items triggered by each key being released, once loaded.
+	 */
+	Map<Integer, List<IBoardItem>> getKeyUpTriggers();
+
+	/**
+	 * Gets the items triggered by each key being pressed, once loaded.
+	 */
+	Map<Integer, List<IBoardItem>> getKeyDownTriggers();
+}
@@ -0,0 +1,20 @@
+package model;
+
+import java.io.IOException;
+
+/**
+ * Told when a compressed file couldn't be written after the save writing it
+ * had already returned, or when another file written on the side, such as a
+ * board cache template, couldn't be written.
+ */
+public interface ICompressionErrorListener {
+
+	/**
+	 * Called when compressing or writing out a file fails. This is called on
+	 * the thread doing the writing.
+	 *
+	 * @param fileName - the file being written.
+	 * @param error - what went wrong.
+	 */
+	void compressionFailed(String fileName, IOException error);
+}
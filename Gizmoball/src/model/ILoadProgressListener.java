@@ -0,0 +1,23 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Puts the items of a board file on the board as they load, and is told how
+ * far the file has got. A loader given one adds nothing to the board itself,
+ * so the file can be read on a worker thread while the board is only changed
+ * on the thread drawing it.
+ */
+public interface ILoadProgressListener {
+
+	/**
+	 * Called each time more of the file has been loaded. This is called on
+	 * the thread doing the loading.
+	 *
+	 * @param items - the items which are ready to go on the board, which may
+	 *        be none. The loader doesn't change them or the list again.
+	 * @param linesLoaded - the number of lines of the file loaded so far.
+	 * @param lineCount - the number of lines in the file.
+	 */
+	void loadProgressed(List<IBoardItem> items, int linesLoaded, int lineCount);
+}
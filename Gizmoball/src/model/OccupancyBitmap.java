@@ -0,0 +1,76 @@
+package model;
+
+/**
+ * One bit for each cell of the board, set when the cell is occupied. Each
+ * row is stored as a run of 64 bit words so that testing a rectangle looks
+ * at whole words at a time rather than single cells.
+ */
+class OccupancyBitmap {
+
+	private long[] words;
+	private int wordsPerRow;
+
+	/**
+	 * Creates an empty bitmap.
+	 *
+	 * @param width - the width of the board.
+	 * @param height - the height of the board.
+	 */
+	OccupancyBitmap(int width, int height) {
+		wordsPerRow = (width + 63) >>> 6;
+		words = new long[wordsPerRow * height];
+	}
+
+	void set(int x, int y) {
+		words[y * wordsPerRow + (x >>> 6)] |= 1L << x;
+	}
+
+	void clear(int x, int y) {
+		words[y * wordsPerRow + (x >>> 6)] &= ~(1L << x);
+	}
+
+	void clearAll() {
+		for (int i = 0; i < words.length; i++)
+			words[i] = 0;
+	}
+
+	/**
+	 * Checks whether every cell in a rectangle is empty. The rectangle must
+	 * be within the board.
+	 *
+	 * @param x - the left column.
+	 * @param y - the top row.
+	 * @param w - the number of columns.
+	 * @param h - the number of rows.
+	 */
+	boolean isClear(int x, int y, int w, int h) {
+		if (w <= 0 || h <= 0)
+			return true;
+
+		int firstWord = x >>> 6, lastWord = (x + w - 1) >>> 6;
+		// shifts only use the low 6 bits, so these are the bits from x and
+		// up to the last column within their words
+		long firstMask = -1L << x;
+		long lastMask = -1L >>> (63 - ((x + w - 1) & 63));
+
+		for (int row = y; row < y + h; row++) {
+			int base = row * wordsPerRow;
+
+			if (firstWord == lastWord) {
+				if ((words[base + firstWord] & firstMask & lastMask) != 0)
+					return false;
+			} else {
+				if ((words[base + firstWord] & firstMask) != 0
+						|| (words[base + lastWord] & lastMask) != 0)
+					return false;
+
+				for (int i = firstWord + 1; i < lastWord; i++) {
+					if (words[base + i] != 0)
+						return false;
+				}
+			}
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,188 @@
+package model;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import exceptions.BadFileException;
+
+/**
+ * Loads a large text board file by parsing it on several threads. The file
+ * is split into chunks on line boundaries and each chunk's lines are parsed
+ * on its own thread. The commands are then run one at a time in file order,
+ * exactly as Loader runs them, so the board, the key triggers and any error
+ * are the same as loading the file with Loader.
+ */
+public class ParallelLoader extends Loader {
+
+	// files smaller than this aren't worth parsing on more than one thread
+	public static final long MIN_FILE_SIZE = 1 << 20;
+	private static final int MIN_CHUNK_SIZE = 64 * 1024;
+
+	private long fileSize;
+
+	/**
+	 * Checks whether a text file is large enough, and there are enough
+	 * processors, for parsing it on several threads to be quicker.
+	 *
+	 * @param fileName - the file to check.
+	 */
+	public static boolean isWorthUsing(String fileName) {
+		return Runtime.getRuntime().availableProcessors() > 1 && new File(fileName).length() >= MIN_FILE_SIZE;
+	}
+
+	public ParallelLoader(String fileName, Board board) throws IOException {
+		super(fileName, board);
+		fileSize = new File(fileName).length();
+	}
+
+	/**
+	 * The commands parsed from one chunk of the file.
+	 */
+	private static class Chunk {
+		final List<BoardCommand> commands = new ArrayList<BoardCommand>();
+		// the first line of the chunk which couldn't be parsed
+		BadFileException error;
+	}
+
+	@Override
+	public void load(IPhysicsEngine engine) throws BadFileException, IOException {
+		final String text = readAll();
+		int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(),
+				text.length() / MIN_CHUNK_SIZE));
+		List<Chunk> chunks = new ArrayList<Chunk>();
+
+		if (threads == 1) {
+			chunks.add(parse(text, 0, text.length()));
+		} else {
+			ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+			try {
+				List<Future<Chunk>> futures = new ArrayList<Future<Chunk>>();
+				int start = 0;
+
+				for (int i = 1; i <= threads; i++) {
+					final int from = start;
+					final int to = i == threads ? text.length() : lineEndAfter(text, (int) ((long) text.length() * i / threads));
+
+					futures.add(executor.submit(new Callable<Chunk>() {
+						@Override
+						public Chunk call() {
+							return parse(text, from, to);
+						}
+					}));
+					start = to;
+				}
+
+				for (Future<Chunk> future : futures)
+					chunks.add(future.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("interrupted while loading");
+			} catch (ExecutionException e) {
+				throw new RuntimeException(e.getCause());
+			} finally {
+				executor.shutdown();
+			}
+		}
+
+		int lineCount = 0, linesRun = 0;
+
+		for (Chunk chunk : chunks)
+			lineCount += chunk.commands.size();
+
+		for (Chunk chunk : chunks) {
+			for (BoardCommand command : chunk.commands)
+				execute(command, engine);
+
+			// every line before the bad one has run, as it would in Loader
+			if (chunk.error != null)
+				throw chunk.error;
+
+			// a later line can still change any item, so none are ready yet
+			linesRun += chunk.commands.size();
+
+			if (listener != null && linesRun < lineCount)
+				listener.loadProgressed(new ArrayList<IBoardItem>(), linesRun, lineCount);
+		}
+
+		//load the items into the board as one change
+		addToBoard(boardItemMap.values(), lineCount, lineCount);
+	}
+
+	private String readAll() throws IOException {
+		StringBuilder text = new StringBuilder((int) Math.min(fileSize, Integer.MAX_VALUE - 8));
+		char[] buffer = new char[64 * 1024];
+		int read;
+
+		try {
+			while ((read = fileInput.read(buffer)) >= 0)
+				text.append(buffer, 0, read);
+		} finally {
+			fileInput.close();
+		}
+
+		return text.toString();
+	}
+
+	/**
+	 * Finds the start of the first line after a position.
+	 */
+	private static int lineEndAfter(String text, int position) {
+		for (int i = position; i < text.length(); i++) {
+			char c = text.charAt(i);
+
+			if (c == '\n')
+				return i + 1;
+
+			// a line ends with "\r", "\n" or "\r\n", as for BufferedReader.readLine
+			if (c == '\r')
+				return i + 1 < text.length() && text.charAt(i + 1) == '\n' ? i + 2 : i + 1;
+		}
+
+		return text.length();
+	}
+
+	/**
+	 * Parses the lines between two positions, which must be line boundaries.
+	 * Lines end the same way as for BufferedReader.readLine.
+	 */
+	private static Chunk parse(String text, int from, int to) {
+		Chunk chunk = new Chunk();
+		BoardCommandParser parser = new BoardCommandParser();
+		int start = from;
+
+		while (start < to) {
+			int end = start;
+
+			while (end < to && text.charAt(end) != '\n' && text.charAt(end) != '\r')
+				end++;
+
+			if (end > start) {
+				BoardCommand command = new BoardCommand();
+
+				try {
+					parser.parse(text.substring(start, end), command);
+				} catch (BadFileException e) {
+					chunk.error = e;
+					return chunk;
+				}
+
+				chunk.commands.add(command);
+			}
+
+			if (end < to && text.charAt(end) == '\r' && end + 1 < to && text.charAt(end + 1) == '\n')
+				end++;
+
+			start = end + 1;
+		}
+
+		return chunk;
+	}
+}
@@ -0,0 +1,268 @@
+package model;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import controller.TriggerHandler;
+import exceptions.BadFileException;
+
+/**
+ * Plays back a replay saved by ReplayRecorder. Seeking restores the last
+ * keyframe before the time sought and runs the frames from there, pressing
+ * and releasing keys as they were recorded, so only the frames since that
+ * keyframe are run again.
+ */
+public class ReplayPlayer {
+
+	private ByteBuffer buffer;
+	private int framesPerSecond;
+	private int frameCount;
+	private int[] keyframeFrames;
+	private int[] keyframesAt;
+	// where the records stop
+	private int end;
+	// the frame the board is at and where its next record starts
+	private int frame;
+	private int at;
+
+	/**
+	 * Opens a replay file.
+	 *
+	 * @param fileName - the file to play back.
+	 * @throws IOException Thrown if there is a problem reading the file.
+	 * @throws BadFileException Thrown if the file is not a replay.
+	 */
+	public ReplayPlayer(String fileName) throws IOException, BadFileException {
+		CompressedFiles.await(fileName);
+		RandomAccessFile file = new RandomAccessFile(fileName, "r");
+		FileChannel channel = file.getChannel();
+
+		try {
+			// a mapping stays valid after the channel is closed
+			buffer = CompressedFiles.read(channel);
+		} finally {
+			channel.close();
+		}
+
+		if (buffer.capacity() < BinaryBoardFormat.REPLAY_HEADER_SIZE
+				|| buffer.getInt(0) != BinaryBoardFormat.REPLAY_MAGIC)
+			throw new BadFileException("not a replay file");
+
+		int version = buffer.getInt(4);
+
+		if (version != BinaryBoardFormat.REPLAY_VERSION)
+			throw new BadFileException("unsupported replay version " + version);
+
+		framesPerSecond = buffer.getInt(8);
+
+		if (framesPerSecond <= 0)
+			throw new BadFileException("invalid frame rate " + framesPerSecond);
+
+		if (!readIndex())
+			scan();
+
+		if (keyframeFrames.length == 0)
+			throw new BadFileException("replay has no keyframes");
+	}
+
+	/**
+	 * Checks whether a file is a replay, from its magic number.
+	 *
+	 * @param fileName - the file to check.
+	 * @throws IOException Thrown if there is a problem reading the file.
+	 */
+	public static boolean isReplayFile(String fileName) throws IOException {
+		return BinaryBoardFormat.isReplayFile(fileName);
+	}
+
+	public int getFramesPerSecond() {
+		return framesPerSecond;
+	}
+
+	/**
+	 * Gets how many frames were recorded.
+	 */
+	public int getFrameCount() {
+		return frameCount;
+	}
+
+	/**
+	 * Gets the frame the board was last seeked or stepped to.
+	 */
+	public int getFrame() {
+		return frame;
+	}
+
+	/**
+	 * Puts the board as it was after a number of frames had run.
+	 *
+	 * @param frame - the frame to seek to.
+	 * @param engine - the engine to run the frames with.
+	 * @param board - the board to put the items onto, which is cleared.
+	 * @param triggerhandler - given the key links, and the keys recorded.
+	 * @throws BadFileException Thrown if the replay is invalid.
+	 */
+	public void seek(int frame, IPhysicsEngine engine, Board board, TriggerHandler triggerhandler)
+			throws BadFileException {
+		int keyframe = Arrays.binarySearch(keyframeFrames, Math.max(frame, keyframeFrames[0]));
+
+		// the keyframe at or before the frame
+		if (keyframe < 0)
+			keyframe = -keyframe - 2;
+
+		int recordAt = keyframesAt[keyframe];
+		int size = buffer.getInt(recordAt + 8);
+
+		board.clear();
+		triggerhandler.clear();
+
+		CheckpointLoader loader = new CheckpointLoader(board);
+		ByteBuffer checkpoint = buffer.duplicate();
+		checkpoint.position(recordAt + BinaryBoardFormat.RECORD_HEADER_SIZE);
+		checkpoint.limit(recordAt + BinaryBoardFormat.RECORD_HEADER_SIZE + size);
+		loader.load(checkpoint.slice(), engine);
+
+		triggerhandler.addLinks(loader.getKeyUpTriggers(), loader.getKeyDownTriggers());
+		engine.initialise(board);
+
+		this.frame = keyframeFrames[keyframe];
+		at = recordAt + BinaryBoardFormat.RECORD_HEADER_SIZE + size;
+
+		while (this.frame < frame)
+			step(engine, triggerhandler);
+	}
+
+	/**
+	 * Runs the next frame, first pressing and releasing the keys that were
+	 * before it.
+	 *
+	 * @param engine - the engine running the board.
+	 * @param triggerhandler - given the keys recorded.
+	 * @throws BadFileException Thrown if the replay is invalid.
+	 */
+	public void step(IPhysicsEngine engine, TriggerHandler triggerhandler) throws BadFileException {
+		while (at < end && buffer.getInt(at + 4) <= frame) {
+			int kind = buffer.getInt(at);
+
+			if (kind == BinaryBoardFormat.KEYFRAME) {
+				int size = buffer.getInt(at + 8);
+
+				if (size < 0 || at + BinaryBoardFormat.RECORD_HEADER_SIZE + (long) size > end)
+					throw new BadFileException("replay file is truncated");
+
+				at += BinaryBoardFormat.RECORD_HEADER_SIZE + size;
+				continue;
+			}
+
+			if (kind == BinaryBoardFormat.KEY_DOWN)
+				triggerhandler.keyDown(buffer.getInt(at + 8));
+			else if (kind == BinaryBoardFormat.KEY_UP)
+				triggerhandler.keyUp(buffer.getInt(at + 8));
+			else
+				throw new BadFileException("unknown record type " + kind);
+
+			at += BinaryBoardFormat.RECORD_HEADER_SIZE;
+		}
+
+		engine.calculateState((double) 1 / framesPerSecond);
+		frame++;
+	}
+
+	/**
+	 * Reads the index at the end of the file.
+	 *
+	 * @return False if there is no whole index.
+	 */
+	private boolean readIndex() {
+		int capacity = buffer.capacity();
+		int trailerAt = capacity - BinaryBoardFormat.INDEX_TRAILER_SIZE;
+
+		if (trailerAt < BinaryBoardFormat.REPLAY_HEADER_SIZE
+				|| buffer.getInt(trailerAt + 8) != BinaryBoardFormat.REPLAY_MAGIC)
+			return false;
+
+		long indexAt = buffer.getLong(trailerAt);
+
+		if (indexAt < BinaryBoardFormat.REPLAY_HEADER_SIZE
+				|| indexAt + BinaryBoardFormat.RECORD_HEADER_SIZE > trailerAt
+				|| buffer.getInt((int) indexAt) != BinaryBoardFormat.INDEX)
+			return false;
+
+		int count = buffer.getInt((int) indexAt + 8);
+
+		if (count < 0 || indexAt + BinaryBoardFormat.RECORD_HEADER_SIZE
+				+ (long) count * BinaryBoardFormat.KEYFRAME_ENTRY_SIZE != trailerAt)
+			return false;
+
+		keyframeFrames = new int[count];
+		keyframesAt = new int[count];
+
+		for (int i = 0; i < count; i++) {
+			int entryAt = (int) indexAt + BinaryBoardFormat.RECORD_HEADER_SIZE
+					+ i * BinaryBoardFormat.KEYFRAME_ENTRY_SIZE;
+			long recordAt = buffer.getLong(entryAt + 4);
+
+			if (recordAt < BinaryBoardFormat.REPLAY_HEADER_SIZE
+					|| recordAt + BinaryBoardFormat.RECORD_HEADER_SIZE > indexAt
+					|| buffer.getInt((int) recordAt) != BinaryBoardFormat.KEYFRAME
+					|| recordAt + BinaryBoardFormat.RECORD_HEADER_SIZE
+							+ (buffer.getInt((int) recordAt + 8) & 0xffffffffL) > indexAt)
+				return false;
+
+			keyframeFrames[i] = buffer.getInt(entryAt);
+			keyframesAt[i] = (int) recordAt;
+		}
+
+		frameCount = buffer.getInt((int) indexAt + 4);
+		end = (int) indexAt;
+		return true;
+	}
+
+	/**
+	 * Finds the keyframes by reading the records up to the last whole one,
+	 * for a recording which was never closed.
+	 */
+	private void scan() {
+		List<Integer> frames = new ArrayList<Integer>();
+		List<Integer> positions = new ArrayList<Integer>();
+		int capacity = buffer.capacity();
+		int recordAt = BinaryBoardFormat.REPLAY_HEADER_SIZE;
+
+		while (recordAt + BinaryBoardFormat.RECORD_HEADER_SIZE <= capacity) {
+			int kind = buffer.getInt(recordAt);
+			int recordFrame = buffer.getInt(recordAt + 4);
+			long size = BinaryBoardFormat.RECORD_HEADER_SIZE;
+
+			if (kind == BinaryBoardFormat.KEYFRAME)
+				size += buffer.getInt(recordAt + 8) & 0xffffffffL;
+			else if (kind != BinaryBoardFormat.KEY_DOWN && kind != BinaryBoardFormat.KEY_UP)
+				break;
+
+			if (recordAt + size > capacity)
+				break;
+
+			if (kind == BinaryBoardFormat.KEYFRAME) {
+				frames.add(recordFrame);
+				positions.add(recordAt);
+			}
+
+			frameCount = Math.max(frameCount, recordFrame);
+			recordAt += size;
+		}
+
+		keyframeFrames = new int[frames.size()];
+		keyframesAt = new int[positions.size()];
+
+		for (int i = 0; i < keyframeFrames.length; i++) {
+			keyframeFrames[i] = frames.get(i);
+			keyframesAt[i] = positions.get(i);
+		}
+
+		end = recordAt;
+	}
+}
@@ -0,0 +1,217 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import controller.TriggerHandler;
+
+/**
+ * Records a run into a replay file, as described in BinaryBoardFormat. The
+ * recorder is told each time a frame has run and each time a key is pressed
+ * or released, and takes a keyframe of the board every so many frames.
+ *
+ * If the file can't be written the recording stops, the error is passed to
+ * CompressedFiles' error listener, and what was written before that can
+ * still be played back. The file is written out on another thread, so a key
+ * or a keyframe is only copied into a buffer on the thread running the
+ * board. A file name ending with CompressedFiles.SUFFIX is recorded gzipped.
+ */
+public class ReplayRecorder {
+
+	private String fileName;
+	private GatheringByteChannel channel;
+	// how many bytes have been written, before any compression
+	private long position;
+	private IPhysicsEngine engine;
+	private Board board;
+	private TriggerHandler triggerhandler;
+	private int keyframeInterval;
+	private int frame;
+	private List<Integer> keyframeFrames = new ArrayList<Integer>();
+	private List<Long> keyframesAt = new ArrayList<Long>();
+	private ByteBuffer record = ByteBuffer.allocate(BinaryBoardFormat.RECORD_HEADER_SIZE);
+
+	/**
+	 * Starts a recording, with the board as it is now as the first keyframe.
+	 *
+	 * @param fileName - the file to record to.
+	 * @param engine - the engine running the board.
+	 * @param board - the board being run.
+	 * @param triggerhandler - the key links of the board.
+	 * @param framesPerSecond - how many frames are run each second.
+	 * @param keyframeInterval - how many frames apart keyframes are taken.
+	 * @throws IOException Thrown if there is an error writing to the file.
+	 */
+	public ReplayRecorder(String fileName, IPhysicsEngine engine, Board board,
+			TriggerHandler triggerhandler, int framesPerSecond, int keyframeInterval) throws IOException {
+		this.fileName = fileName;
+		this.engine = engine;
+		this.board = board;
+		this.triggerhandler = triggerhandler;
+		this.keyframeInterval = keyframeInterval;
+
+		channel = CompressedFiles.openBufferedOutput(fileName);
+
+		try {
+			ByteBuffer header = ByteBuffer.allocate(BinaryBoardFormat.REPLAY_HEADER_SIZE);
+			header.putInt(BinaryBoardFormat.REPLAY_MAGIC);
+			header.putInt(BinaryBoardFormat.REPLAY_VERSION);
+			header.putInt(framesPerSecond);
+			header.putInt(keyframeInterval);
+			header.flip();
+
+			write(header);
+			writeKeyframe();
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Checks whether the recording is still going, it stops when it is closed
+	 * or the file can't be written.
+	 */
+	public boolean isRecording() {
+		return channel != null;
+	}
+
+	/**
+	 * Tells the recorder a frame has been run.
+	 */
+	public void frameRun() {
+		if (channel == null)
+			return;
+
+		frame++;
+
+		if (frame % keyframeInterval == 0) {
+			try {
+				writeKeyframe();
+			} catch (IOException e) {
+				failed(e);
+			}
+		}
+	}
+
+	/**
+	 * Records a key being pressed.
+	 *
+	 * @param keyCode - the key pressed.
+	 */
+	public void keyPressed(int keyCode) {
+		writeKey(BinaryBoardFormat.KEY_DOWN, keyCode);
+	}
+
+	/**
+	 * Records a key being released.
+	 *
+	 * @param keyCode - the key released.
+	 */
+	public void keyReleased(int keyCode) {
+		writeKey(BinaryBoardFormat.KEY_UP, keyCode);
+	}
+
+	/**
+	 * Stops the recording and writes the index of its keyframes.
+	 */
+	public void close() {
+		if (channel == null)
+			return;
+
+		try {
+			int count = keyframeFrames.size();
+			long indexAt = position;
+			ByteBuffer index = ByteBuffer.allocate(BinaryBoardFormat.RECORD_HEADER_SIZE
+					+ count * BinaryBoardFormat.KEYFRAME_ENTRY_SIZE + BinaryBoardFormat.INDEX_TRAILER_SIZE);
+
+			index.putInt(BinaryBoardFormat.INDEX);
+			index.putInt(frame);
+			index.putInt(count);
+
+			for (int i = 0; i < count; i++) {
+				index.putInt(keyframeFrames.get(i));
+				index.putLong(keyframesAt.get(i));
+			}
+
+			index.putLong(indexAt);
+			index.putInt(BinaryBoardFormat.REPLAY_MAGIC);
+			index.flip();
+
+			write(index);
+			channel.close();
+		} catch (IOException e) {
+			failed(e);
+		}
+
+		channel = null;
+	}
+
+	private void writeKey(int kind, int keyCode) {
+		if (channel == null)
+			return;
+
+		record.clear();
+		record.putInt(kind);
+		record.putInt(frame);
+		record.putInt(keyCode);
+		record.flip();
+
+		try {
+			write(record);
+		} catch (IOException e) {
+			failed(e);
+		}
+	}
+
+	private void writeKeyframe() throws IOException {
+		CheckpointSaver saver = new CheckpointSaver(null);
+		ByteBuffer[] checkpoint = saver.write(engine, board, triggerhandler);
+		ByteBuffer[] buffers = new ByteBuffer[checkpoint.length + 1];
+		int size = 0;
+
+		for (int i = 0; i < checkpoint.length; i++) {
+			buffers[i + 1] = checkpoint[i];
+			size += checkpoint[i].remaining();
+		}
+
+		record.clear();
+		record.putInt(BinaryBoardFormat.KEYFRAME);
+		record.putInt(frame);
+		record.putInt(size);
+		record.flip();
+		buffers[0] = record;
+
+		keyframeFrames.add(frame);
+		keyframesAt.add(position);
+
+		ByteBuffer last = buffers[buffers.length - 1];
+
+		while (last.hasRemaining())
+			position += channel.write(buffers);
+	}
+
+	private void write(ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining())
+			position += channel.write(buffer);
+	}
+
+	/**
+	 * Stops recording after the file couldn't be written. What has been
+	 * written is left, and is read without an index.
+	 */
+	private void failed(IOException e) {
+		CompressedFiles.failed(fileName, e);
+
+		try {
+			channel.close();
+		} catch (IOException closeError) {
+			// this is the same error again
+		}
+
+		channel = null;
+	}
+}
@@ -1,10 +1,8 @@
 package model;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.util.HashMap;
+import java.nio.channels.WritableByteChannel;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -13,37 +11,56 @@ import model.gizmos.LeftFlipper;
 import model.gizmos.RightFlipper;
 import controller.TriggerHandler;
 
+/**
+ * Saves a board as text. Each line is written straight into one buffer, with
+ * numbers formatted as String.format's %d and %f would, and the file is
+ * written through a single channel. A file name ending with
+ * CompressedFiles.SUFFIX is saved gzipped.
+ */
 public class Saver {
-	
-	private final static String GIZMO_FORMAT = "%s %s %d %d\n";
-	private final static String ABSORBER_FORMAT = "Absorber %s %d %d %d %d\n";
-	private final static String BALL_FORMAT = "Ball %s %f %f %f %f\n";
-	private final static String ROTATE_FORMAT = "Rotate %s\n";
-	private final static String CONNECT_FORMAT = "Connect %s %s\n";
-	private final static String KEY_CONNECT_FORMAT = "KeyConnect key %d %s %s\n";
-	private final static String GRAVITY_FORMAT = "Gravity %f\n";
-	private final static String FRICTION_FORMAT = "Friction %f %f\n";
-
-	private PrintWriter fileOutput;
+
+	private BoardFileWriter fileOutput;
 	private Map<IBoardItem, String> names;
 	private int count;
 
 	public Saver(String fileName) throws IOException {
-		fileOutput = new PrintWriter(new BufferedWriter(
-				new FileWriter(fileName)));
-		names = new HashMap<IBoardItem, String>();
+		fileOutput = new BoardFileWriter(fileName);
+		names = new IdentityHashMap<IBoardItem, String>();
+		count = 0;
+	}
+
+	/**
+	 * Creates a saver which writes the board's text to a channel rather than
+	 * a file, closing it once the board is saved.
+	 *
+	 * @param channel - the channel to write to.
+	 */
+	Saver(WritableByteChannel channel) {
+		fileOutput = new BoardFileWriter(channel);
+		names = new IdentityHashMap<IBoardItem, String>();
 		count = 0;
 	}
 
 	public void save(IPhysicsEngine engine, Board board,
-			TriggerHandler triggerhandler) {
-		savePhysics(engine);
-		saveBoard(board);
-		saveConnections(board, triggerhandler);
-		fileOutput.close();
+			TriggerHandler triggerhandler) throws IOException {
+		try {
+			savePhysics(engine);
+			saveBoard(board);
+			saveConnections(board, triggerhandler);
+		} finally {
+			fileOutput.close();
+		}
+	}
+
+	/**
+	 * Gets the name given to each item by the last save.
+	 */
+	public Map<IBoardItem, String> getNames() {
+		return names;
 	}
 
-	private void saveConnections(Board board, TriggerHandler triggerhandler) {
+	private void saveConnections(Board board, TriggerHandler triggerhandler)
+			throws IOException {
 		Map<Integer, List<IBoardItem>> downLinks = triggerhandler
 				.getLinksDown();
 		Map<Integer, List<IBoardItem>> upLinks = triggerhandler.getLinksUp();
@@ -53,32 +70,35 @@ public class Saver {
 	}
 
 	private void saveKeyConnections(String direction,
-			Map<Integer, List<IBoardItem>> downLinks) {
+			Map<Integer, List<IBoardItem>> downLinks) throws IOException {
 		int key;
 		for (Map.Entry<Integer, List<IBoardItem>> entry : downLinks.entrySet()) {
 			key = entry.getKey();
 			for (IBoardItem item : entry.getValue()) {
-				fileOutput.printf(KEY_CONNECT_FORMAT, key, direction,
-						getName(item));
+				// KeyConnect key <key> <direction> <name>
+				fileOutput.append("KeyConnect key ").appendInteger(key)
+						.append(' ').append(direction).append(' ')
+						.append(getName(item)).append('\n');
 			}
 		}
 	}
 
-	private void saveBoardConnections(Board board) {
+	private void saveBoardConnections(Board board) throws IOException {
 		for (IGizmo gizmo : board.getGizmos()) {
 			for (IBoardItem item : gizmo.getConnectedItems()) {
-				fileOutput
-						.format(CONNECT_FORMAT, getName(gizmo), getName(item));
+				// Connect <name> <name>
+				fileOutput.append("Connect ").append(getName(gizmo))
+						.append(' ').append(getName(item)).append('\n');
 			}
 		}
 	}
 
-	private void saveBoard(Board board) {
+	private void saveBoard(Board board) throws IOException {
 		saveGizmos(board);
 		saveBalls(board);
 	}
 
-	private void saveGizmos(Board board) {
+	private void saveGizmos(Board board) throws IOException {
 		int x, y;
 		for (IGizmo gizmo : board.getGizmos()) {
 			switch (gizmo.getType()) {
@@ -106,8 +126,11 @@ public class Saver {
 			case Absorber:
 				x = gizmo.getX();
 				y = gizmo.getY();
-				fileOutput.format(ABSORBER_FORMAT, giveName(gizmo, "Absorber"),
-						x, y, x + gizmo.getWidth(), y + gizmo.getHeight());
+				// Absorber <name> <x1> <y1> <x2> <y2>
+				fileOutput.append("Absorber ").append(giveName(gizmo, "Absorber"))
+						.append(' ').appendInteger(x).append(' ').appendInteger(y)
+						.append(' ').appendInteger(x + gizmo.getWidth())
+						.append(' ').appendInteger(y + gizmo.getHeight()).append('\n');
 				break;
 				
 			case AcceleratorGizmo:
@@ -136,9 +159,12 @@ public class Saver {
 		}
 	}
 
-	private void saveGizmo(IGizmo gizmo, String type) {
+	private void saveGizmo(IGizmo gizmo, String type) throws IOException {
 		String name = giveName(gizmo, type);
-		fileOutput.format(GIZMO_FORMAT, type, name, gizmo.getX(), gizmo.getY());
+		// <type> <name> <x> <y>
+		fileOutput.append(type).append(' ').append(name).append(' ')
+				.appendInteger(gizmo.getX()).append(' ')
+				.appendInteger(gizmo.getY()).append('\n');
 		
 		int orientation = gizmo.getOrientation();
 		
@@ -148,26 +174,34 @@ public class Saver {
 			orientation -= 1;
 		
 		for (int i = 0; i < orientation; i++) {
-			fileOutput.format(ROTATE_FORMAT, name);
+			// Rotate <name>
+			fileOutput.append("Rotate ").append(name).append('\n');
 		}
 	}
 
-	private void saveBalls(Board board) {
+	private void saveBalls(Board board) throws IOException {
 		List<Ball> balls = board.getBalls();
 		for (Ball ball : balls) {
-			fileOutput.format(BALL_FORMAT, giveName(ball), ball.getX(),
-					ball.getY(), ball.getXVelocity(), ball.getYVelocity());
+			// Ball <name> <x> <y> <vx> <vy>
+			fileOutput.append("Ball ").append(giveName(ball))
+					.append(' ').appendFloat(ball.getX())
+					.append(' ').appendFloat(ball.getY())
+					.append(' ').appendFloat(ball.getXVelocity())
+					.append(' ').appendFloat(ball.getYVelocity()).append('\n');
 		}
 	}
 
-	private void savePhysics(IPhysicsEngine engine) {
-		fileOutput.printf(GRAVITY_FORMAT, engine.getGravity());
-		fileOutput.printf(FRICTION_FORMAT, engine.getFriction1(),
-				engine.getFriction2());
+	private void savePhysics(IPhysicsEngine engine) throws IOException {
+		// Gravity <g>
+		fileOutput.append("Gravity ").appendFloat(engine.getGravity()).append('\n');
+		// Friction <mu> <mu2>
+		fileOutput.append("Friction ").appendFloat(engine.getFriction1())
+				.append(' ').appendFloat(engine.getFriction2()).append('\n');
 	}
 
 	private String getName(IBoardItem gizmo) {
-		return names.get(gizmo);
+		// items which aren't on the board were written as "null" by %s
+		return String.valueOf(names.get(gizmo));
 	}
 
 	private String giveName(IGizmo gizmo, String type) {
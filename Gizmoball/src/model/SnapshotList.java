@@ -0,0 +1,100 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A list with one writer which any number of threads can read without
+ * locking. Readers take a snapshot, an immutable list which never changes
+ * however the list is modified afterwards, so iterating one can't throw a
+ * ConcurrentModificationException.
+ *
+ * Each change publishes a new snapshot through a volatile field. Appending
+ * writes into spare capacity beyond the end of the current snapshot, which
+ * no reader can see, so it doesn't copy the array. Removing copies it, as
+ * existing snapshots must keep their elements.
+ */
+class SnapshotList<E> {
+
+	private static final int MIN_CAPACITY = 8;
+
+	private volatile Snapshot<E> current;
+
+	/**
+	 * One version of the list. This is immutable, though later versions may
+	 * share its array and use the space after its last element.
+	 */
+	private static final class Snapshot<E> extends AbstractList<E> implements RandomAccess {
+		final Object[] elements;
+		final int size;
+
+		Snapshot(Object[] elements, int size) {
+			this.elements = elements;
+			this.size = size;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public E get(int index) {
+			if (index < 0 || index >= size)
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+
+			return (E) elements[index];
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+
+	SnapshotList() {
+		current = new Snapshot<E>(new Object[0], 0);
+	}
+
+	/**
+	 * Gets the current contents of the list. This is safe to call from any
+	 * thread and doesn't copy anything.
+	 */
+	List<E> snapshot() {
+		return current;
+	}
+
+	void add(E element) {
+		Snapshot<E> snapshot = current;
+		Object[] elements = snapshot.elements;
+
+		if (snapshot.size == elements.length)
+			elements = Arrays.copyOf(elements, Math.max(MIN_CAPACITY, elements.length * 2));
+
+		// nothing can see past the end of the current snapshot yet
+		elements[snapshot.size] = element;
+		current = new Snapshot<E>(elements, snapshot.size + 1);
+	}
+
+	/**
+	 * Removes the first occurrence of an element.
+	 *
+	 * @return True if the element was in the list; otherwise, false.
+	 */
+	boolean remove(Object element) {
+		Snapshot<E> snapshot = current;
+		int index = snapshot.indexOf(element);
+
+		if (index < 0)
+			return false;
+
+		Object[] elements = new Object[snapshot.elements.length];
+		System.arraycopy(snapshot.elements, 0, elements, 0, index);
+		System.arraycopy(snapshot.elements, index + 1, elements, index, snapshot.size - index - 1);
+		current = new Snapshot<E>(elements, snapshot.size - 1);
+
+		return true;
+	}
+
+	void clear() {
+		current = new Snapshot<E>(new Object[0], 0);
+	}
+}
@@ -0,0 +1,347 @@
+package model;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.gizmos.IGizmo;
+
+/**
+ * Divides the board into square buckets of cells and records which gizmos
+ * overlap each bucket, so that the gizmos in a region can be found without
+ * looking at every gizmo on the board. Gizmos lying outside the board are
+ * kept in the nearest edge bucket. Queries return gizmos in the order they
+ * were added, so neighbouring gizmos are drawn over each other the same way
+ * as when drawing the whole list.
+ * 
+ * It also keeps a grid of which gizmo occupies each cell of the board, so
+ * finding the gizmo at a point is a single lookup. Where gizmos overlap the
+ * cell holds the earliest added, as a search of the list would find. A
+ * bitmap of the occupied cells allows whole rectangles to be checked for
+ * gizmos a word at a time.
+ */
+class SpatialIndex {
+	// the width and height of a bucket in board units
+	static final int BUCKET_SIZE = 8;
+
+	private List<IGizmo>[] buckets;
+	private int columns, rows;
+	private IGizmo[] cells;
+	private OccupancyBitmap occupied;
+	private int width, height;
+	private Map<IGizmo, Entry> entries;
+	private int nextOrder;
+	private Comparator<IGizmo> addedOrder;
+
+	/**
+	 * What the index knows about a gizmo.
+	 */
+	private static class Entry {
+		// the buckets the gizmo overlaps, as columns and rows
+		Rectangle range;
+		// the cells of the board the gizmo covers
+		Rectangle area;
+		int order;
+	}
+
+	/**
+	 * Creates an empty index.
+	 *
+	 * @param width - the width of the board.
+	 * @param height - the height of the board.
+	 */
+	SpatialIndex(int width, int height) {
+		entries = new IdentityHashMap<IGizmo, Entry>();
+		addedOrder = new Comparator<IGizmo>() {
+			@Override
+			public int compare(IGizmo a, IGizmo b) {
+				int orderA = entries.get(a).order, orderB = entries.get(b).order;
+				return orderA < orderB ? -1 : (orderA == orderB ? 0 : 1);
+			}
+		};
+		resize(width, height);
+	}
+
+	/**
+	 * Changes the size of the area covered, the gizmos already in the index
+	 * are kept.
+	 */
+	@SuppressWarnings("unchecked")
+	void resize(int width, int height) {
+		this.width = Math.max(width, 0);
+		this.height = Math.max(height, 0);
+		cells = new IGizmo[this.width * this.height];
+		occupied = new OccupancyBitmap(this.width, this.height);
+		columns = Math.max(1, (width + BUCKET_SIZE - 1) / BUCKET_SIZE);
+		rows = Math.max(1, (height + BUCKET_SIZE - 1) / BUCKET_SIZE);
+		buckets = (List<IGizmo>[]) new List<?>[columns * rows];
+
+		for (Map.Entry<IGizmo, Entry> entry : entries.entrySet())
+			insert(entry.getKey(), entry.getValue());
+	}
+
+	/**
+	 * Gets the gizmo occupying a cell.
+	 * 
+	 * @return The gizmo, or null if the cell is empty.
+	 */
+	IGizmo get(int x, int y) {
+		if (x >= 0 && x < width && y >= 0 && y < height)
+			return cells[y * width + x];
+
+		// cells outside the board aren't in the grid, but any gizmos there
+		// are still in the edge buckets
+		return find(x, y, null);
+	}
+
+	void add(IGizmo gizmo) {
+		Entry entry = new Entry();
+		entry.order = nextOrder++;
+		entries.put(gizmo, entry);
+		insert(gizmo, entry);
+	}
+
+	void remove(IGizmo gizmo) {
+		Entry entry = entries.remove(gizmo);
+
+		if (entry != null)
+			extract(gizmo, entry);
+	}
+
+	boolean contains(IGizmo gizmo) {
+		return entries.containsKey(gizmo);
+	}
+
+	/**
+	 * Updates the index after a gizmo has moved, it keeps its place in the
+	 * order.
+	 */
+	void update(IGizmo gizmo) {
+		Entry entry = entries.get(gizmo);
+
+		if (entry != null) {
+			extract(gizmo, entry);
+			insert(gizmo, entry);
+		}
+	}
+
+	void clear() {
+		entries.clear();
+		nextOrder = 0;
+
+		for (int i = 0; i < buckets.length; i++)
+			buckets[i] = null;
+
+		for (int i = 0; i < cells.length; i++)
+			cells[i] = null;
+
+		occupied.clearAll();
+	}
+
+	/**
+	 * Checks whether a rectangle of cells is within the board and has no
+	 * gizmos in it, other than one which is to be ignored.
+	 * 
+	 * @param ignore - a gizmo to treat as not being there, or null.
+	 */
+	boolean isClear(int x, int y, int w, int h, IGizmo ignore) {
+		if (x < 0 || y < 0 || x + w > width || y + h > height)
+			return false;
+
+		Entry entry = ignore == null ? null : entries.get(ignore);
+		Rectangle skip = entry == null ? null : entry.area.intersection(new Rectangle(x, y, w, h));
+
+		if (skip == null || skip.isEmpty())
+			return occupied.isClear(x, y, w, h);
+
+		// check the bitmap around the ignored gizmo, above, below, left and right
+		int skipRight = skip.x + skip.width, skipBottom = skip.y + skip.height;
+
+		if (!occupied.isClear(x, y, w, skip.y - y)
+				|| !occupied.isClear(x, skipBottom, w, y + h - skipBottom)
+				|| !occupied.isClear(x, skip.y, skip.x - x, skip.height)
+				|| !occupied.isClear(skipRight, skip.y, x + w - skipRight, skip.height))
+			return false;
+
+		// cells the ignored gizmo shares with another are only free if the
+		// ignored one is the gizmo found there
+		for (int row = skip.y; row < skipBottom; row++) {
+			for (int col = skip.x; col < skipRight; col++) {
+				IGizmo occupant = cells[row * width + col];
+
+				if (occupant != null && occupant != ignore)
+					return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Finds the gizmos whose bounds intersect a region. Each gizmo is added
+	 * to the result once.
+	 *
+	 * @param x1 - the left of the region.
+	 * @param y1 - the top of the region.
+	 * @param x2 - the right of the region.
+	 * @param y2 - the bottom of the region.
+	 * @param result - the list to add the gizmos to.
+	 */
+	void query(double x1, double y1, double x2, double y2, List<IGizmo> result) {
+		Rectangle range = getBucketRange(x1, y1, x2, y2);
+		int first = result.size();
+
+		for (int row = range.y; row < range.y + range.height; row++) {
+			for (int col = range.x; col < range.x + range.width; col++) {
+				List<IGizmo> bucket = buckets[row * columns + col];
+
+				if (bucket == null)
+					continue;
+
+				for (int i = 0; i < bucket.size(); i++) {
+					IGizmo gizmo = bucket.get(i);
+					Rectangle gizmoRange = entries.get(gizmo).range;
+
+					// a gizmo spanning several buckets is only reported from
+					// the first one which is also part of the query
+					if (col != Math.max(range.x, gizmoRange.x) || row != Math.max(range.y, gizmoRange.y))
+						continue;
+
+					if (gizmo.getX() < x2 && gizmo.getX() + gizmo.getWidth() > x1
+							&& gizmo.getY() < y2 && gizmo.getY() + gizmo.getHeight() > y1)
+						result.add(gizmo);
+				}
+			}
+		}
+
+		Collections.sort(result.subList(first, result.size()), addedOrder);
+	}
+
+	/**
+	 * Adds a gizmo to the buckets it overlaps.
+	 */
+	private void insert(IGizmo gizmo, Entry entry) {
+		entry.range = getBucketRange(gizmo.getX(), gizmo.getY(),
+				gizmo.getX() + gizmo.getWidth(), gizmo.getY() + gizmo.getHeight());
+		Rectangle range = entry.range;
+
+		for (int row = range.y; row < range.y + range.height; row++) {
+			for (int col = range.x; col < range.x + range.width; col++) {
+				int index = row * columns + col;
+
+				if (buckets[index] == null)
+					buckets[index] = new ArrayList<IGizmo>(4);
+
+				buckets[index].add(gizmo);
+			}
+		}
+
+		entry.area = getCellRange(gizmo);
+		Rectangle area = entry.area;
+
+		for (int y = area.y; y < area.y + area.height; y++) {
+			for (int x = area.x; x < area.x + area.width; x++) {
+				IGizmo occupant = cells[y * width + x];
+
+				if (occupant == null || entries.get(occupant).order > entry.order) {
+					cells[y * width + x] = gizmo;
+					occupied.set(x, y);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes a gizmo from the buckets it was added to.
+	 */
+	private void extract(IGizmo gizmo, Entry entry) {
+		Rectangle range = entry.range;
+
+		for (int row = range.y; row < range.y + range.height; row++) {
+			for (int col = range.x; col < range.x + range.width; col++) {
+				List<IGizmo> bucket = buckets[row * columns + col];
+
+				for (int i = 0; i < bucket.size(); i++) {
+					if (bucket.get(i) == gizmo) {
+						bucket.remove(i);
+						break;
+					}
+				}
+			}
+		}
+
+		// any gizmo it was overlapping takes over its cells
+		Rectangle area = entry.area;
+
+		for (int y = area.y; y < area.y + area.height; y++) {
+			for (int x = area.x; x < area.x + area.width; x++) {
+				if (cells[y * width + x] == gizmo) {
+					cells[y * width + x] = find(x, y, gizmo);
+
+					if (cells[y * width + x] == null)
+						occupied.clear(x, y);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Searches the bucket containing a cell for the earliest added gizmo
+	 * covering it.
+	 * 
+	 * @param exclude - a gizmo to ignore, or null.
+	 */
+	private IGizmo find(int x, int y, IGizmo exclude) {
+		Rectangle range = getBucketRange(x, y, x + 1, y + 1);
+		List<IGizmo> bucket = buckets[range.y * columns + range.x];
+		IGizmo found = null;
+
+		if (bucket == null)
+			return null;
+
+		for (int i = 0; i < bucket.size(); i++) {
+			IGizmo gizmo = bucket.get(i);
+
+			if (gizmo != exclude
+					&& x >= gizmo.getX() && x < gizmo.getX() + gizmo.getWidth()
+					&& y >= gizmo.getY() && y < gizmo.getY() + gizmo.getHeight()
+					&& (found == null || entries.get(gizmo).order < entries.get(found).order))
+				found = gizmo;
+		}
+
+		return found;
+	}
+
+	/**
+	 * Gets the cells of the board covered by a gizmo.
+	 */
+	private Rectangle getCellRange(IGizmo gizmo) {
+		int x1 = Math.max(gizmo.getX(), 0), y1 = Math.max(gizmo.getY(), 0);
+		int x2 = Math.min(gizmo.getX() + gizmo.getWidth(), width);
+		int y2 = Math.min(gizmo.getY() + gizmo.getHeight(), height);
+
+		return new Rectangle(x1, y1, Math.max(x2 - x1, 0), Math.max(y2 - y1, 0));
+	}
+
+	/**
+	 * Gets the buckets covering a region as a rectangle of bucket columns
+	 * and rows, clamped to the index.
+	 */
+	private Rectangle getBucketRange(double x1, double y1, double x2, double y2) {
+		int col1 = clamp((int) Math.floor(x1 / BUCKET_SIZE), columns);
+		int row1 = clamp((int) Math.floor(y1 / BUCKET_SIZE), rows);
+		// the right and bottom edges are exclusive
+		int col2 = clamp((int) Math.ceil(x2 / BUCKET_SIZE) - 1, columns);
+		int row2 = clamp((int) Math.ceil(y2 / BUCKET_SIZE) - 1, rows);
+
+		return new Rectangle(col1, row1, Math.max(col2 - col1, 0) + 1, Math.max(row2 - row1, 0) + 1);
+	}
+
+	private static int clamp(int value, int count) {
+		return Math.max(0, Math.min(value, count - 1));
+	}
+}
@@ -0,0 +1,112 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import exceptions.BadFileException;
+
+/**
+ * Loads a text board file onto the board a chunk at a time, rather than all
+ * at once at the end, so a large board can be shown as it loads and only the
+ * items still being changed are held apart from the board.
+ *
+ * The file is read twice. The first pass checks every line and finds the
+ * last line which names each item. The second pass runs the commands as
+ * Loader does, and once the last line naming an item has run nothing can
+ * move, rotate, connect or delete it any more, so it is put on the board.
+ */
+public class StreamingLoader extends Loader {
+
+	// how many finished items are put on the board at once
+	private static final int CHUNK_SIZE = 1000;
+
+	private String fileName;
+
+	/**
+	 * Creates a loader for a text board file. The listener, if it is given
+	 * one, is handed each chunk.
+	 *
+	 * @param fileName - the file to load.
+	 * @param board - the board to load the items onto.
+	 */
+	public StreamingLoader(String fileName, Board board) throws IOException {
+		super(fileName, board);
+		this.fileName = fileName;
+	}
+
+	@Override
+	public void load(IPhysicsEngine engine) throws BadFileException, IOException {
+		BoardCommandParser parser = new BoardCommandParser();
+		BoardCommand command = new BoardCommand();
+		Map<String, Integer> lastUses = new HashMap<String, Integer>();
+		int lineCount = 0;
+		String line;
+
+		try {
+			while ((line = fileInput.readLine()) != null) {
+				if (!line.isEmpty()) {
+					parser.parse(line, command);
+
+					if (command.name != null)
+						lastUses.put(command.name, lineCount);
+
+					if (command.kind == BoardCommand.Kind.Connect)
+						lastUses.put(command.name2, lineCount);
+				}
+
+				lineCount++;
+			}
+		} finally {
+			fileInput.close();
+		}
+
+		BufferedReader input = new BufferedReader(CompressedFiles.openReader(fileName));
+		List<IBoardItem> finished = new ArrayList<IBoardItem>();
+		int lineNumber = 0;
+
+		try {
+			while ((line = input.readLine()) != null) {
+				if (!line.isEmpty()) {
+					parser.parse(line, command);
+					execute(command, engine);
+					finish(command.name, lineNumber, lastUses, finished);
+
+					if (command.kind == BoardCommand.Kind.Connect)
+						finish(command.name2, lineNumber, lastUses, finished);
+
+					if (finished.size() >= CHUNK_SIZE) {
+						addToBoard(finished, lineNumber + 1, lineCount);
+						finished.clear();
+					}
+				}
+
+				lineNumber++;
+			}
+		} finally {
+			input.close();
+		}
+
+		addToBoard(finished, lineCount, lineCount);
+	}
+
+	/**
+	 * Moves an item to the finished list if no later line names it.
+	 */
+	private void finish(String name, int lineNumber, Map<String, Integer> lastUses, List<IBoardItem> finished) {
+		Integer lastUse = lastUses.get(name);
+
+		if (lastUse == null || lastUse != lineNumber)
+			return;
+
+		lastUses.remove(name);
+		// deleted items are no longer in the map
+		IBoardItem item = boardItemMap.remove(name);
+
+		if (item != null)
+			finished.add(item);
+	}
+}
@@ -1,21 +1,21 @@
-package model.gizmos;
-
-import model.GizmoType;
-import model.IBoardItem;
-
-public interface IGizmo extends IBoardItem {
-	
-	GizmoType getType();
-
-	int getX();
-
-	int getY();
-
-	int getWidth();
-
-	int getHeight();
-
-	int getOrientation();
-	
-	boolean canRotate();
-}
+package model.gizmos;
+
+import model.GizmoType;
+import model.IBoardItem;
+
+public interface IGizmo extends IBoardItem {
+	
+	GizmoType getType();
+
+	int getX();
+
+	int getY();
+
+	int getWidth();
+
+	int getHeight();
+
+	int getOrientation();
+	
+	boolean canRotate();
+}
@@ -1,8 +1,9 @@
-package model.gizmos;
-
-public interface ISpinningGizmo
-{
-	public double getAngularMomentum();
-	public void setAngle(double angle);
-	public double getAngle();
-}
+package model.gizmos;
+
+public interface ISpinningGizmo
+{
+	public double getAngularMomentum();
+	public void setAngularMomentum(double angularMomentum);
+	public void setAngle(double angle);
+	public double getAngle();
+}
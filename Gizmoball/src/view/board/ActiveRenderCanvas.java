@@ -0,0 +1,326 @@
+package view.board;
+
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.DisplayMode;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Toolkit;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.image.BufferStrategy;
+import java.util.HashSet;
+import java.util.Set;
+
+import model.Board;
+import controller.GizmoballViewModel;
+import controller.TriggerHandler;
+
+/**
+ * Draws the board in run mode by active rendering. Rather than waiting for
+ * Swing to call paint, a dedicated thread draws each frame into a
+ * BufferStrategy and flips it, paced to the refresh rate of the display.
+ * This avoids the event queue latency and the unpredictable coalescing of
+ * repaint requests.
+ *
+ * Keys are handed straight to the trigger handler to be applied at the start
+ * of the next step, rather than going round the event queue again as
+ * MagicKeyListener does. How long frames take to draw, and how long it takes
+ * from a key being pressed to the first frame drawn after the step it was
+ * applied in being shown, are recorded for each run so they can be shown
+ * once it stops.
+ */
+@SuppressWarnings("serial")
+public class ActiveRenderCanvas extends Canvas implements Runnable {
+	
+	private static final int DEFAULT_REFRESH_RATE = 60;
+	private static final int BUFFER_COUNT = 2;
+
+	private GizmoballViewModel viewmodel;
+	private BoardRenderer renderer;
+	private volatile boolean running;
+	private Thread renderThread;
+	// the keys held down, only used on the event queue
+	private Set<Integer> heldKeys = new HashSet<Integer>();
+	// written by the render thread and read on the event queue, guarded by this
+	private long frameCount, totalFrameTime, maxFrameTime;
+	private long keyCount, totalKeyLatency, maxKeyLatency;
+	// the oldest key press not yet on screen, the step before the one it is
+	// applied in and when it happened, or -1 if there isn't one
+	private long pendingKeyStep = -1, pendingKeyTime;
+
+	/**
+	 * Creates a new canvas for drawing the board in run mode.
+	 * 
+	 * @param viewmodel - the viewmodel holding the board.
+	 */
+	public ActiveRenderCanvas(GizmoballViewModel viewmodel) {
+		this.viewmodel = viewmodel;
+
+		renderer = new BoardRenderer(viewmodel.getBoard());
+		renderer.setBackgroundColour(Color.black);
+
+		// painting is done by the render thread, not by the event queue
+		this.setIgnoreRepaint(true);
+		this.setBackground(Color.black);
+		this.setFocusable(true);
+
+		final TriggerHandler triggerHandler = viewmodel.getTriggerHandler();
+
+		this.addKeyListener(new KeyAdapter() {
+			@Override
+			public void keyPressed(KeyEvent e) {
+				// a held key repeats its press
+				if (heldKeys.add(e.getKeyCode())) {
+					triggerHandler.queueKey(e.getKeyCode(), false);
+					noteKeyPress(e.getWhen());
+				}
+			}
+
+			@Override
+			public void keyReleased(KeyEvent e) {
+				if (heldKeys.remove(e.getKeyCode()))
+					triggerHandler.queueKey(e.getKeyCode(), true);
+			}
+		});
+	}
+
+	/**
+	 * Notes when a key was pressed and the step it will be applied after, so
+	 * the latency to the first frame showing it can be measured. This is
+	 * called on the event queue, where the steps are run.
+	 * 
+	 * @param when - the time the key was pressed, in milliseconds since the
+	 *        epoch, as given by the key event.
+	 */
+	private synchronized void noteKeyPress(long when) {
+		if (pendingKeyStep >= 0)
+			return;
+
+		// the event's time includes the wait on the event queue
+		long delay = Math.max(System.currentTimeMillis() - when, 0);
+		pendingKeyTime = System.nanoTime() - delay * 1000000;
+		pendingKeyStep = viewmodel.getStepCount();
+	}
+
+	/**
+	 * Starts the render thread. The canvas must be displayable.
+	 */
+	public void start() {
+		if (running)
+			return;
+
+		if (getBufferStrategy() == null)
+			createBufferStrategy(BUFFER_COUNT);
+
+		renderer.invalidateBackground();
+
+		// allow half of each refresh for drawing, the governor is kept from
+		// one run to the next so it doesn't start again at the top level
+		if (renderer.getQualityGovernor() == null)
+			renderer.setQualityGovernor(new RenderQualityGovernor(1000000000L / getRefreshRate() / 2));
+
+		synchronized (this) {
+			frameCount = totalFrameTime = maxFrameTime = 0;
+			keyCount = totalKeyLatency = maxKeyLatency = 0;
+			pendingKeyStep = -1;
+		}
+
+		heldKeys.clear();
+		running = true;
+
+		renderThread = new Thread(this, "Gizmoball render thread");
+		renderThread.setPriority(Thread.MAX_PRIORITY);
+		// closing the window mustn't wait for it
+		renderThread.setDaemon(true);
+		renderThread.start();
+	}
+
+	/**
+	 * Stops the render thread and waits for it to finish.
+	 */
+	public void stop() {
+		running = false;
+
+		if (renderThread != null) {
+			try {
+				renderThread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+
+			renderThread = null;
+		}
+	}
+
+	/**
+	 * The render loop.
+	 */
+	@Override
+	public void run() {
+		BufferStrategy strategy = getBufferStrategy();
+		long framePeriod = 1000000000L / getRefreshRate();
+		long nextFrame = System.nanoTime();
+
+		while (running) {
+			long start = System.nanoTime();
+
+			long step = renderFrame(strategy);
+
+			long end = System.nanoTime();
+			recordFrameTime(end - start);
+			recordKeyLatency(step, end);
+
+			// wait for the next refresh, if we've fallen behind then don't
+			// try to catch up as that would just bunch frames together
+			nextFrame += framePeriod;
+			long wait = nextFrame - System.nanoTime();
+
+			if (wait > 0) {
+				try {
+					Thread.sleep(wait / 1000000, (int) (wait % 1000000));
+				} catch (InterruptedException e) {
+					running = false;
+				}
+			} else {
+				nextFrame = System.nanoTime();
+			}
+		}
+	}
+
+	/**
+	 * Draws and shows a frame.
+	 * 
+	 * @return The number of steps the engine had run when it was drawn.
+	 */
+	private long renderFrame(BufferStrategy strategy) {
+		Board board = viewmodel.getBoard();
+		long step = 0;
+
+		do {
+			do {
+				Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+
+				try {
+					// the simulation runs on the event queue, so stop it
+					// changing the board half way through drawing it
+					synchronized (board) {
+						step = viewmodel.getStepCount();
+						renderer.getViewport().follow();
+						renderer.render(g, getWidth(), getHeight(), false);
+					}
+				} finally {
+					g.dispose();
+				}
+			} while (strategy.contentsRestored());
+
+			strategy.show();
+		} while (strategy.contentsLost());
+
+		// make sure the frame reaches the screen now rather than when the
+		// window system gets round to it
+		Toolkit.getDefaultToolkit().sync();
+		return step;
+	}
+
+	private synchronized void recordFrameTime(long time) {
+		frameCount++;
+		totalFrameTime += time;
+		maxFrameTime = Math.max(maxFrameTime, time);
+	}
+
+	/**
+	 * Records the latency of the waiting key press if a frame showing it has
+	 * just been shown.
+	 * 
+	 * @param step - the number of steps run when the frame was drawn.
+	 * @param shown - when the frame was shown.
+	 */
+	private synchronized void recordKeyLatency(long step, long shown) {
+		if (pendingKeyStep < 0 || step <= pendingKeyStep)
+			return;
+
+		long latency = shown - pendingKeyTime;
+		keyCount++;
+		totalKeyLatency += latency;
+		maxKeyLatency = Math.max(maxKeyLatency, latency);
+		pendingKeyStep = -1;
+	}
+
+	/**
+	 * Gets the average time taken to draw a frame since rendering started.
+	 * 
+	 * @return The average frame time in nanoseconds.
+	 */
+	public synchronized long getAverageFrameTime() {
+		return frameCount == 0 ? 0 : totalFrameTime / frameCount;
+	}
+
+	/**
+	 * Gets the longest time taken to draw a frame since rendering started.
+	 * 
+	 * @return The maximum frame time in nanoseconds.
+	 */
+	public synchronized long getMaxFrameTime() {
+		return maxFrameTime;
+	}
+
+	/**
+	 * Gets the number of key presses whose latency has been measured since
+	 * rendering started.
+	 */
+	public synchronized long getKeyCount() {
+		return keyCount;
+	}
+
+	/**
+	 * Gets the average time from a key being pressed to the first frame
+	 * showing it, since rendering started.
+	 * 
+	 * @return The average latency in nanoseconds.
+	 */
+	public synchronized long getAverageKeyLatency() {
+		return keyCount == 0 ? 0 : totalKeyLatency / keyCount;
+	}
+
+	/**
+	 * Gets the longest time from a key being pressed to the first frame
+	 * showing it, since rendering started.
+	 * 
+	 * @return The maximum latency in nanoseconds.
+	 */
+	public synchronized long getMaxKeyLatency() {
+		return maxKeyLatency;
+	}
+
+	/**
+	 * Sets the region of the board to draw, so this can show the same view
+	 * as the design mode panel.
+	 * 
+	 * @param viewport - the viewport to draw through.
+	 */
+	public void setViewport(Viewport viewport) {
+		renderer.setViewport(viewport);
+	}
+
+	/**
+	 * Gets the governor which picks the quality the board is drawn at, this
+	 * is null until rendering is first started.
+	 */
+	public RenderQualityGovernor getQualityGovernor() {
+		return renderer.getQualityGovernor();
+	}
+
+	private int getRefreshRate() {
+		GraphicsConfiguration config = getGraphicsConfiguration();
+
+		if (config != null) {
+			DisplayMode mode = config.getDevice().getDisplayMode();
+
+			if (mode.getRefreshRate() != DisplayMode.REFRESH_RATE_UNKNOWN)
+				return mode.getRefreshRate();
+		}
+
+		return DEFAULT_REFRESH_RATE;
+	}
+}
@@ -1,207 +1,269 @@
-package view.board;
-
-import java.awt.AWTEvent;
-import java.awt.BasicStroke;
-import java.awt.Color;
-import java.awt.Dimension;
-import java.awt.Graphics;
-import java.awt.Graphics2D;
-import java.awt.Rectangle;
-import java.awt.RenderingHints;
-import java.awt.event.KeyEvent;
-import java.awt.event.KeyListener;
-import java.awt.event.MouseEvent;
-import java.awt.geom.AffineTransform;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Observable;
-import java.util.Observer;
-
-import javax.swing.JPanel;
-
-import model.Ball;
-import model.Board;
-import model.GizmoType;
-import model.gizmos.IGizmo;
-import controller.DesignModeViewModel;
-import controller.GizmoballViewModel;
-import controller.GizmoballViewModel.UpdateReason;
-import controller.MagicKeyListener;
-
-public class AnimationPanel extends JPanel implements Observer, KeyListener {
-	private GizmoballViewModel viewmodel;
-	private DesignModeViewModel designmodeViewmodel;
-	private Map<GizmoType, IGizmoPainter> painters;
-	private BallPainter ballpainter;
-	private boolean mousecontained;
-	private MagicKeyListener triggerListener;
-
-	public AnimationPanel(GizmoballViewModel viewmodel, DesignModeViewModel designmodeViewmodel) {
-		this.viewmodel = viewmodel;
-		viewmodel.addObserver(this);
-
-		this.designmodeViewmodel = designmodeViewmodel;
-		designmodeViewmodel.addObserver(this);
-
-		this.setBackground(Color.black);
-		this.setMinimumSize(new Dimension(600, 600));
-		this.enableEvents(AWTEvent.MOUSE_EVENT_MASK | AWTEvent.MOUSE_MOTION_EVENT_MASK);
-		this.addKeyListener(new MagicKeyListener(this));
-
-		triggerListener = new MagicKeyListener(viewmodel.getTriggerHandler());
-
-		painters = new HashMap<GizmoType, IGizmoPainter>();
-		painters.put(GizmoType.SquareBumper, new SquareBumperPainter());
-		painters.put(GizmoType.CircleBumper, new CircleBumperPainter());
-		painters.put(GizmoType.TriangleBumper, new TriangleBumperPainter());
-		painters.put(GizmoType.Flipper, new FlipperPainter());
-		painters.put(GizmoType.Absorber, new AbsorberPainter());
-		painters.put(GizmoType.AcceleratorGizmo, new CircleBumperPainter());
-		painters.put(GizmoType.PortalGizmo, new CircleBumperPainter());
-		painters.put(GizmoType.MultiballGizmo, new CircleBumperPainter());
-		painters.put(GizmoType.GateGizmo, new GateGizmoPainter());
-		painters.put(GizmoType.SpinnerGizmo, new SpinnerGizmoPainter());
-
-		ballpainter = new BallPainter();
-	}
-
-	@Override
-	public void paint(Graphics g) {
-		super.paint(g);
-
-		Board board = viewmodel.getBoard();
-		Graphics2D g2d = (Graphics2D) g;
-
-		g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
-				RenderingHints.VALUE_ANTIALIAS_ON);
-
-		g2d.transform(AffineTransform.getScaleInstance(getXScale(), getYScale()));
-		g2d.setFont(g2d.getFont().deriveFont(AffineTransform.getScaleInstance(2.0 / getXScale(), 2.0 / getYScale())));
-
-		// set the stroke width equivalent to 1 pixel at normal scaling
-		g2d.setStroke(new BasicStroke(0.05f));
-
-		// draw the grid if in design mode
-		if (viewmodel.getIsRunning() == false) {
-			g2d.setColor(Color.GRAY);
-
-			for (int i = 1; i < board.getHeight(); i++) {
-				g.drawLine(0, i, board.getWidth(), i);
-			}
-
-			for (int i = 1; i < board.getWidth(); i++) {
-				g.drawLine(i, 0, i, board.getHeight());
-			}
-		}
-
-		// draw all the gizmos
-		for (IGizmo gizmo : board.getGizmos()) {
-			IGizmoPainter painter = painters.get(gizmo.getType());
-
-			if (painter != null)
-				painter.paint(g2d, gizmo);
-		}
-
-		// draw all the balls
-		for (Ball ball : board.getBalls()) {
-			ballpainter.paint(g2d, ball);
-		}
-
-		// draw the validation rectangle if active
-		Rectangle validationRectangle = designmodeViewmodel.getPositionBox();
-
-		if (mousecontained && validationRectangle != null) {
-			if (designmodeViewmodel.getPositionValid())
-				g2d.setColor(Color.GREEN);
-			else
-				g2d.setColor(Color.RED);
-
-			g2d.draw(validationRectangle);
-		}
-	}
-
-	@Override
-	public void update(Observable source, Object arg) {
-		UpdateReason reason = (UpdateReason) arg;
-
-		switch (reason) {
-		case RunStateChanged:
-			if (viewmodel.getIsRunning()) {
-				this.addKeyListener(triggerListener);
-				this.requestFocus();
-			} else {
-				this.removeKeyListener(triggerListener);
-			}
-			break;
-
-		case BoardChanged:
-			this.repaint();
-			break;
-		}
-	}
-
-	@Override
-	protected void processMouseEvent(MouseEvent e) {
-		handleMouseEvent(e);
-		super.processMouseEvent(e);
-	}
-
-	@Override
-	protected void processMouseMotionEvent(MouseEvent e) {
-		handleMouseEvent(e);
-		super.processMouseMotionEvent(e);
-	}
-
-	private void handleMouseEvent(MouseEvent e) {
-		int x = (int) (e.getX() / getXScale());
-		int y = (int) (e.getY() / getYScale());
-
-		switch (e.getID()) {
-		case MouseEvent.MOUSE_MOVED:
-		case MouseEvent.MOUSE_DRAGGED:
-			designmodeViewmodel.moveTo(x, y);
-			break;
-
-		case MouseEvent.MOUSE_PRESSED:
-			designmodeViewmodel.beginSelectAt(x, y);
-			break;
-
-		case MouseEvent.MOUSE_RELEASED:
-			designmodeViewmodel.endSelectAt(x, y);
-			break;
-
-		case MouseEvent.MOUSE_EXITED:
-			mousecontained = false;
-			repaint();
-			break;
-
-		case MouseEvent.MOUSE_ENTERED:
-			mousecontained = true;
-			super.requestFocus();
-			break;
-		}
-	}
-
-	private double getXScale() {
-		return (double) this.getWidth() / viewmodel.getBoard().getWidth();
-	}
-
-	private double getYScale() {
-		return (double) this.getHeight() / viewmodel.getBoard().getHeight();
-	}
-
-	@Override
-	public void keyPressed(KeyEvent e) {
-		designmodeViewmodel.keyPressed(e.getKeyCode());
-	}
-
-	@Override
-	public void keyReleased(KeyEvent e) {
-
-	}
-
-	@Override
-	public void keyTyped(KeyEvent e) {
-
-	}
-}
+package view.board;
+
+import java.awt.AWTEvent;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.geom.Rectangle2D;
+import java.util.Observable;
+import java.util.Observer;
+
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+
+import controller.DesignModeViewModel;
+import controller.GizmoballViewModel;
+import controller.GizmoballViewModel.UpdateReason;
+import controller.MagicKeyListener;
+
+public class AnimationPanel extends JPanel implements Observer, KeyListener {
+	// extra pixels repainted around a dirty region to cover outlines and antialiasing
+	private static final int DIRTY_MARGIN = 2;
+	// how much one notch of the mouse wheel zooms by
+	private static final double ZOOM_STEP = 1.25;
+
+	private GizmoballViewModel viewmodel;
+	private DesignModeViewModel designmodeViewmodel;
+	private BoardRenderer renderer;
+	private Viewport viewport;
+	private boolean mousecontained, panning;
+	private int panX, panY;
+	private MagicKeyListener triggerListener;
+
+	public AnimationPanel(GizmoballViewModel viewmodel, DesignModeViewModel designmodeViewmodel) {
+		this.viewmodel = viewmodel;
+		viewmodel.addObserver(this);
+
+		this.designmodeViewmodel = designmodeViewmodel;
+		designmodeViewmodel.addObserver(this);
+
+		this.setBackground(Color.black);
+		this.setMinimumSize(new Dimension(600, 600));
+		this.enableEvents(AWTEvent.MOUSE_EVENT_MASK | AWTEvent.MOUSE_MOTION_EVENT_MASK | AWTEvent.MOUSE_WHEEL_EVENT_MASK);
+		this.addKeyListener(new MagicKeyListener(this));
+
+		triggerListener = new MagicKeyListener(viewmodel.getTriggerHandler());
+
+		renderer = new BoardRenderer(viewmodel.getBoard());
+		renderer.setBackgroundColour(this.getBackground());
+
+		viewport = renderer.getViewport();
+		viewport.addObserver(this);
+
+		// allow half of each frame for painting, the rest is for the simulation
+		renderer.setQualityGovernor(new RenderQualityGovernor(1000000000L / GizmoballViewModel.FRAMES_PER_SEC / 2));
+	}
+
+	@Override
+	public void paint(Graphics g) {
+		Graphics2D g2d = (Graphics2D) g;
+		renderer.render(g2d, getWidth(), getHeight(), viewmodel.getIsRunning() == false);
+
+		// draw the validation rectangle if active
+		Rectangle validationRectangle = designmodeViewmodel.getPositionBox();
+
+		if (mousecontained && validationRectangle != null) {
+			if (designmodeViewmodel.getPositionValid())
+				g2d.setColor(Color.GREEN);
+			else
+				g2d.setColor(Color.RED);
+
+			g2d.draw(validationRectangle);
+		}
+	}
+
+	@Override
+	public void update(Observable source, Object arg) {
+		if (source == viewport) {
+			this.repaint();
+			return;
+		}
+
+		UpdateReason reason = (UpdateReason) arg;
+
+		switch (reason) {
+		case RunStateChanged:
+			if (viewmodel.getIsRunning()) {
+				this.addKeyListener(triggerListener);
+				this.requestFocus();
+			} else {
+				this.removeKeyListener(triggerListener);
+			}
+
+			// the grid is only shown in design mode
+			renderer.invalidateBackground();
+			this.repaint();
+			break;
+
+		case BoardChanged:
+			if (source == viewmodel && viewmodel.getIsRunning()) {
+				// if the view moves to follow the ball it is all repainted
+				viewport.follow();
+
+				// only the parts of the board which moved need repainting
+				for (Rectangle2D dirty : viewmodel.getBoard().getDirtyRegions())
+					repaintBoardRegion(dirty);
+			} else {
+				// the layout of the board has been edited
+				renderer.invalidateBackground();
+				this.repaint();
+			}
+			break;
+
+		case PositionBoxChanged:
+			this.repaint();
+			break;
+		}
+	}
+
+	/**
+	 * Paints the area of the panel covering a region of the board. This is
+	 * painted straight away, as Swing would merge separate repaint requests
+	 * into one rectangle covering them all.
+	 * 
+	 * @param region - the region in board units.
+	 */
+	private void repaintBoardRegion(Rectangle2D region) {
+		int width = getWidth(), height = getHeight();
+		int x1 = (int) Math.floor(viewport.toPixelX(region.getMinX(), width)) - DIRTY_MARGIN;
+		int y1 = (int) Math.floor(viewport.toPixelY(region.getMinY(), height)) - DIRTY_MARGIN;
+		int x2 = (int) Math.ceil(viewport.toPixelX(region.getMaxX(), width)) + DIRTY_MARGIN;
+		int y2 = (int) Math.ceil(viewport.toPixelY(region.getMaxY(), height)) + DIRTY_MARGIN;
+
+		this.paintImmediately(x1, y1, x2 - x1, y2 - y1);
+	}
+
+	@Override
+	protected void processMouseEvent(MouseEvent e) {
+		handleMouseEvent(e);
+		super.processMouseEvent(e);
+	}
+
+	@Override
+	protected void processMouseMotionEvent(MouseEvent e) {
+		handleMouseEvent(e);
+		super.processMouseMotionEvent(e);
+	}
+
+	@Override
+	protected void processMouseWheelEvent(MouseWheelEvent e) {
+		double factor = Math.pow(ZOOM_STEP, -e.getWheelRotation());
+
+		// zoom about the point under the mouse
+		viewport.zoom(factor, viewport.toBoardX(e.getX(), getWidth()), viewport.toBoardY(e.getY(), getHeight()));
+		super.processMouseWheelEvent(e);
+	}
+
+	private void handleMouseEvent(MouseEvent e) {
+		// the right mouse button drags the view around
+		if (handlePanEvent(e))
+			return;
+
+		int x = (int) Math.floor(viewport.toBoardX(e.getX(), getWidth()));
+		int y = (int) Math.floor(viewport.toBoardY(e.getY(), getHeight()));
+
+		switch (e.getID()) {
+		case MouseEvent.MOUSE_MOVED:
+		case MouseEvent.MOUSE_DRAGGED:
+			designmodeViewmodel.moveTo(x, y);
+			break;
+
+		case MouseEvent.MOUSE_PRESSED:
+			designmodeViewmodel.beginSelectAt(x, y);
+			break;
+
+		case MouseEvent.MOUSE_RELEASED:
+			designmodeViewmodel.endSelectAt(x, y);
+			break;
+
+		case MouseEvent.MOUSE_EXITED:
+			mousecontained = false;
+			repaint();
+			break;
+
+		case MouseEvent.MOUSE_ENTERED:
+			mousecontained = true;
+			super.requestFocus();
+			break;
+		}
+	}
+
+	/**
+	 * Pans the view while the right mouse button is dragged.
+	 * 
+	 * @return True if the event was used for panning; otherwise, false.
+	 */
+	private boolean handlePanEvent(MouseEvent e) {
+		switch (e.getID()) {
+		case MouseEvent.MOUSE_PRESSED:
+			if (SwingUtilities.isRightMouseButton(e)) {
+				panning = true;
+				panX = e.getX();
+				panY = e.getY();
+			}
+			break;
+
+		case MouseEvent.MOUSE_DRAGGED:
+			if (panning) {
+				viewport.pan((panX - e.getX()) / getXScale(), (panY - e.getY()) / getYScale());
+				panX = e.getX();
+				panY = e.getY();
+			}
+			break;
+
+		case MouseEvent.MOUSE_RELEASED:
+			if (panning && SwingUtilities.isRightMouseButton(e)) {
+				panning = false;
+				return true;
+			}
+			break;
+		}
+
+		return panning;
+	}
+
+	/**
+	 * Gets the region of the board which is shown, this can be shared with
+	 * other views of the board.
+	 */
+	public Viewport getViewport() {
+		return viewport;
+	}
+
+	/**
+	 * Gets the governor which picks the quality the board is drawn at, this
+	 * can be observed to monitor the current level.
+	 */
+	public RenderQualityGovernor getQualityGovernor() {
+		return renderer.getQualityGovernor();
+	}
+
+	private double getXScale() {
+		return renderer.getXScale(this.getWidth());
+	}
+
+	private double getYScale() {
+		return renderer.getYScale(this.getHeight());
+	}
+
+	@Override
+	public void keyPressed(KeyEvent e) {
+		designmodeViewmodel.keyPressed(e.getKeyCode());
+	}
+
+	@Override
+	public void keyReleased(KeyEvent e) {
+
+	}
+
+	@Override
+	public void keyTyped(KeyEvent e) {
+
+	}
+}
@@ -1,23 +1,39 @@
-package view.board;
-
-import java.awt.Color;
-import java.awt.Graphics2D;
-import java.awt.geom.Ellipse2D;
-
-import model.Ball;
-
-public class BallPainter {
-	
-	public void paint(Graphics2D g, Ball ball) {
-		
-		double r = ball.getRadius();
-		Ellipse2D.Double circle = new Ellipse2D.Double(ball.getX() - r,
-				ball.getY() - r, r * 2, r * 2);
-
-		g.setColor(Color.YELLOW);
-		g.fill(circle);
-
-		g.setColor(Color.YELLOW.darker());
-		g.draw(circle);
-	}
-}
+package view.board;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Rectangle2D;
+
+import model.Ball;
+
+public class BallPainter {
+	
+	private static final Color FILL_COLOUR = Color.YELLOW;
+	private static final Color OUTLINE_COLOUR = Color.YELLOW.darker();
+
+	private Ellipse2D.Double circle = new Ellipse2D.Double();
+	private Rectangle2D.Double square = new Rectangle2D.Double();
+
+	public void paint(Graphics2D g, Ball ball, RenderQuality quality) {
+		
+		double r = ball.getRadius();
+
+		// at low quality a ball is just a filled square
+		if (quality.isSimplified()) {
+			square.setRect(ball.getX() - r, ball.getY() - r, r * 2, r * 2);
+
+			g.setColor(FILL_COLOUR);
+			g.fill(square);
+			return;
+		}
+
+		circle.setFrame(ball.getX() - r, ball.getY() - r, r * 2, r * 2);
+
+		g.setColor(FILL_COLOUR);
+		g.fill(circle);
+
+		g.setColor(OUTLINE_COLOUR);
+		g.draw(circle);
+	}
+}
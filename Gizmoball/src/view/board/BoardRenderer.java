@@ -0,0 +1,325 @@
+package view.board;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import model.Ball;
+import model.Board;
+import model.GizmoType;
+import model.gizmos.IGizmo;
+
+/**
+ * Draws a board using the gizmo and ball painters. The grid and the static
+ * gizmos are cached in a background image, so each frame is a single blit
+ * followed by the gizmos and balls which move. Only the region of the board
+ * shown by the viewport is drawn, and the gizmos in it are looked up through
+ * the board's spatial index. This is shared by every view which draws the
+ * board.
+ */
+public class BoardRenderer {
+	// extra board units around an item when testing it against the clip
+	private static final double CLIP_MARGIN = 0.1;
+	// allowance for rounding when converting the board size to pixels
+	private static final double EPSILON = 1e-9;
+	// gizmos which can only change in design mode, these are drawn in the background
+	private static final Set<GizmoType> STATIC_TYPES = EnumSet.of(
+			GizmoType.SquareBumper, GizmoType.TriangleBumper,
+			GizmoType.CircleBumper, GizmoType.AcceleratorGizmo,
+			GizmoType.PortalGizmo, GizmoType.MultiballGizmo,
+			GizmoType.Absorber);
+	// the stroke width equivalent to 1 pixel at normal scaling
+	private static final BasicStroke STROKE = new BasicStroke(0.05f);
+
+	private Board board;
+	private Viewport viewport;
+	private Map<GizmoType, IGizmoPainter> painters;
+	private BallPainter ballpainter;
+	private Color backgroundColour;
+	private BufferedImage background;
+	private boolean backgroundValid, backgroundGrid;
+	private RenderQuality backgroundQuality;
+	private int backgroundX, backgroundY;
+	private double backgroundXScale, backgroundYScale;
+	// set from the event queue and read by whichever thread draws
+	private volatile RenderQualityGovernor governor;
+	private Font baseFont, scaledFont;
+	// the gizmos in the region being drawn, reused from frame to frame
+	private List<IGizmo> gizmosInRegion = new ArrayList<IGizmo>();
+	private double fontXScale, fontYScale;
+
+	/**
+	 * Creates a renderer for a board.
+	 * 
+	 * @param board - the board to draw.
+	 */
+	public BoardRenderer(Board board) {
+		this.board = board;
+		this.viewport = new Viewport(board);
+		this.backgroundColour = Color.black;
+
+		painters = new HashMap<GizmoType, IGizmoPainter>();
+		painters.put(GizmoType.SquareBumper, new SquareBumperPainter());
+		painters.put(GizmoType.CircleBumper, new CircleBumperPainter());
+		painters.put(GizmoType.TriangleBumper, new TriangleBumperPainter());
+		painters.put(GizmoType.Flipper, new FlipperPainter());
+		painters.put(GizmoType.Absorber, new AbsorberPainter());
+		painters.put(GizmoType.AcceleratorGizmo, new CircleBumperPainter());
+		painters.put(GizmoType.PortalGizmo, new CircleBumperPainter());
+		painters.put(GizmoType.MultiballGizmo, new CircleBumperPainter());
+		painters.put(GizmoType.GateGizmo, new GateGizmoPainter());
+		painters.put(GizmoType.SpinnerGizmo, new SpinnerGizmoPainter());
+
+		ballpainter = new BallPainter();
+	}
+
+	/**
+	 * Draws the visible region of the board scaled to fill the specified
+	 * area. When this returns the graphics are left transformed to board
+	 * units, so the caller can draw overlays on top.
+	 * 
+	 * @param g - the graphics to draw to, in pixels.
+	 * @param width - the width of the area in pixels.
+	 * @param height - the height of the area in pixels.
+	 * @param showGrid - whether to draw the design mode grid.
+	 */
+	public void render(Graphics2D g, int width, int height, boolean showGrid) {
+		long start = System.nanoTime();
+		RenderQualityGovernor governor = this.governor;
+		RenderQuality quality = governor == null ? RenderQuality.High : governor.getLevel();
+		double xscale, yscale;
+		int viewX, viewY;
+
+		// take a consistent copy in case the view is moved while drawing
+		synchronized (viewport) {
+			xscale = viewport.getXScale(width);
+			yscale = viewport.getYScale(height);
+			viewX = viewport.getPixelX(width);
+			viewY = viewport.getPixelY(height);
+		}
+
+		if (isBackgroundValid(viewX, viewY, width, height, xscale, yscale, showGrid, quality) == false)
+			renderBackground(g, viewX, viewY, width, height, xscale, yscale, showGrid, quality);
+
+		// the background covers the whole area, so there is no need to clear it first
+		g.drawImage(background, backgroundX - viewX, backgroundY - viewY, null);
+		g.translate(-viewX, -viewY);
+		prepareGraphics(g, xscale, yscale, quality);
+
+		// only items inside the area being repainted need to be drawn
+		Rectangle2D clip = g.getClip() == null ? new Rectangle2D.Double(viewX / xscale, viewY / yscale, width / xscale, height / yscale) : g.getClip().getBounds2D();
+		Rectangle2D.Double region = new Rectangle2D.Double(clip.getX() - CLIP_MARGIN, clip.getY() - CLIP_MARGIN, clip.getWidth() + 2 * CLIP_MARGIN, clip.getHeight() + 2 * CLIP_MARGIN);
+
+		// draw the gizmos which are not part of the background
+		board.getGizmosIn(region, gizmosInRegion);
+
+		for (int i = 0; i < gizmosInRegion.size(); i++) {
+			IGizmo gizmo = gizmosInRegion.get(i);
+			IGizmoPainter painter = painters.get(gizmo.getType());
+
+			if (painter == null)
+				continue;
+
+			if (STATIC_TYPES.contains(gizmo.getType()) == false)
+				painter.paint(g, gizmo, quality);
+			else if (painter instanceof ILayeredGizmoPainter)
+				((ILayeredGizmoPainter) painter).paintDynamic(g, gizmo, quality);
+		}
+
+		// draw the balls in view
+		for (Ball ball : board.getBalls()) {
+			double r = ball.getRadius();
+
+			if (region.intersects(ball.getX() - r, ball.getY() - r, r * 2, r * 2))
+				ballpainter.paint(g, ball, quality);
+		}
+
+		if (governor != null)
+			governor.frameRendered(System.nanoTime() - start);
+	}
+
+	/**
+	 * Sets the region of the board which is drawn. Several renderers can
+	 * share a viewport.
+	 * 
+	 * @param viewport - the viewport to draw through.
+	 */
+	public void setViewport(Viewport viewport) {
+		this.viewport = viewport;
+		backgroundValid = false;
+	}
+
+	public Viewport getViewport() {
+		return viewport;
+	}
+
+	/**
+	 * Sets the governor used to pick the quality to draw at. Without one the
+	 * board is always drawn at the highest quality.
+	 * 
+	 * @param governor - the governor, or null.
+	 */
+	public void setQualityGovernor(RenderQualityGovernor governor) {
+		this.governor = governor;
+	}
+
+	public RenderQualityGovernor getQualityGovernor() {
+		return governor;
+	}
+
+	/**
+	 * Gets the quality the board is currently drawn at.
+	 */
+	public RenderQuality getQuality() {
+		return governor == null ? RenderQuality.High : governor.getLevel();
+	}
+
+	/**
+	 * Marks the background as out of date, this should be called whenever
+	 * the layout of the board is edited.
+	 */
+	public void invalidateBackground() {
+		backgroundValid = false;
+	}
+
+	public void setBackgroundColour(Color colour) {
+		backgroundColour = colour;
+		backgroundValid = false;
+	}
+
+	/**
+	 * Gets the scale from board units to pixels along the x axis.
+	 */
+	public double getXScale(int width) {
+		return viewport.getXScale(width);
+	}
+
+	/**
+	 * Gets the scale from board units to pixels along the y axis.
+	 */
+	public double getYScale(int height) {
+		return viewport.getYScale(height);
+	}
+
+	/**
+	 * Renders the grid and the static gizmos into the background image. When
+	 * zoomed in the image extends half a view beyond each side of the view
+	 * where the board allows, so it can be reused while the view is panned.
+	 * The position and size are in pixels relative to the top left of the
+	 * board.
+	 */
+	private void renderBackground(Graphics2D target, int viewX, int viewY, int width, int height, double xscale, double yscale, boolean showGrid, RenderQuality quality) {
+		int boardRight = (int) Math.ceil(board.getWidth() * xscale - EPSILON);
+		int boardBottom = (int) Math.ceil(board.getHeight() * yscale - EPSILON);
+
+		backgroundX = Math.max(0, viewX - width / 2);
+		backgroundY = Math.max(0, viewY - height / 2);
+		int backgroundRight = Math.max(viewX + width, Math.min(boardRight, viewX + width + width / 2));
+		int backgroundBottom = Math.max(viewY + height, Math.min(boardBottom, viewY + height + height / 2));
+
+		background = target.getDeviceConfiguration().createCompatibleImage(Math.max(backgroundRight - backgroundX, 1), Math.max(backgroundBottom - backgroundY, 1));
+		Graphics2D g = background.createGraphics();
+
+		g.setColor(backgroundColour);
+		g.fillRect(0, 0, background.getWidth(), background.getHeight());
+		g.translate(-backgroundX, -backgroundY);
+		prepareGraphics(g, xscale, yscale, quality);
+
+		Rectangle2D.Double region = new Rectangle2D.Double(backgroundX / xscale, backgroundY / yscale, background.getWidth() / xscale, background.getHeight() / yscale);
+
+		// draw the grid if in design mode
+		if (showGrid && quality.showGrid()) {
+			int left = (int) region.getMinX(), top = (int) region.getMinY();
+			int right = Math.min(board.getWidth(), (int) Math.ceil(region.getMaxX()));
+			int bottom = Math.min(board.getHeight(), (int) Math.ceil(region.getMaxY()));
+
+			g.setColor(Color.GRAY);
+
+			for (int i = Math.max(top, 1); i < Math.min(bottom + 1, board.getHeight()); i++) {
+				g.drawLine(left, i, right, i);
+			}
+
+			for (int i = Math.max(left, 1); i < Math.min(right + 1, board.getWidth()); i++) {
+				g.drawLine(i, top, i, bottom);
+			}
+		}
+
+		// include gizmos just outside whose outlines reach into the image
+		region.setRect(region.x - CLIP_MARGIN, region.y - CLIP_MARGIN, region.width + 2 * CLIP_MARGIN, region.height + 2 * CLIP_MARGIN);
+
+		board.getGizmosIn(region, gizmosInRegion);
+
+		for (int i = 0; i < gizmosInRegion.size(); i++) {
+			IGizmo gizmo = gizmosInRegion.get(i);
+			IGizmoPainter painter = painters.get(gizmo.getType());
+
+			if (painter == null || STATIC_TYPES.contains(gizmo.getType()) == false)
+				continue;
+
+			if (painter instanceof ILayeredGizmoPainter)
+				((ILayeredGizmoPainter) painter).paintStatic(g, gizmo, quality);
+			else
+				painter.paint(g, gizmo, quality);
+		}
+
+		g.dispose();
+		backgroundValid = true;
+		backgroundGrid = showGrid;
+		backgroundQuality = quality;
+		backgroundXScale = xscale;
+		backgroundYScale = yscale;
+	}
+
+	/**
+	 * Checks whether the background image can be used to draw the view.
+	 */
+	private boolean isBackgroundValid(int viewX, int viewY, int width, int height, double xscale, double yscale, boolean showGrid, RenderQuality quality) {
+		return backgroundValid && background != null
+				&& backgroundGrid == showGrid
+				&& backgroundQuality == quality
+				&& backgroundXScale == xscale && backgroundYScale == yscale
+				&& viewX >= backgroundX && viewY >= backgroundY
+				&& viewX + width <= backgroundX + background.getWidth()
+				&& viewY + height <= backgroundY + background.getHeight();
+	}
+
+	/**
+	 * Sets up a graphics context to draw in board units.
+	 */
+	private void prepareGraphics(Graphics2D g, double xscale, double yscale, RenderQuality quality) {
+		quality.apply(g);
+		g.scale(xscale, yscale);
+		g.setFont(getScaledFont(g.getFont(), xscale, yscale));
+		g.setStroke(STROKE);
+	}
+
+	/**
+	 * Gets a font which is the right size when drawn in board units. This is
+	 * only derived again when the scale or the font changes.
+	 */
+	private Font getScaledFont(Font font, double xscale, double yscale) {
+		boolean sameFont = font == baseFont || font == scaledFont;
+
+		if (!sameFont || xscale != fontXScale || yscale != fontYScale) {
+			if (!sameFont)
+				baseFont = font;
+
+			scaledFont = baseFont.deriveFont(AffineTransform.getScaleInstance(2.0 / xscale, 2.0 / yscale));
+			fontXScale = xscale;
+			fontYScale = yscale;
+		}
+
+		return scaledFont;
+	}
+
+}
@@ -1,39 +1,58 @@
-package view.board;
-
-import java.awt.Color;
-import java.awt.Graphics2D;
-import java.awt.geom.AffineTransform;
-import java.awt.geom.Path2D;
-
-import model.gizmos.Flipper;
-import model.gizmos.IGizmo;
-
-public class FlipperPainter implements IGizmoPainter {
-	
-	@Override
-	public void paint(Graphics2D g, IGizmo gizmo) {
-		int orientation = gizmo.getOrientation();
-		int x = gizmo.getX(), y = gizmo.getY();
-
-		Flipper flipper = (Flipper) gizmo;
-
-		Path2D.Double path = new Path2D.Double();
-		path.moveTo(x, y + 0.25);
-		path.lineTo(x, y + 1.75);
-		path.curveTo(x, y + 2, x + 0.5, y + 2, x + 0.5, y + 1.75);
-		path.lineTo(x + 0.5, y + 0.25);
-		path.curveTo(x + 0.5, y, x, y, x, y + 0.25);
-
-		if (flipper.getAngle() != 0)
-			path.transform(AffineTransform.getRotateInstance(flipper.getAngle(), x + 0.25, y + 0.25));
-
-		if (orientation != 0)
-			path.transform(AffineTransform.getRotateInstance(Math.PI / 2* orientation, x + 1, y + 1));
-
-		g.setColor(Color.ORANGE);
-		g.fill(path);
-
-		g.setColor(Color.ORANGE.darker());
-		g.draw(path);
-	}
-}
+package view.board;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+
+import model.gizmos.Flipper;
+import model.gizmos.IGizmo;
+
+public class FlipperPainter implements IGizmoPainter {
+	
+	private static final Color FILL_COLOUR = Color.ORANGE;
+	private static final Color OUTLINE_COLOUR = Color.ORANGE.darker();
+	// every flipper has the same outline, relative to its top left corner
+	private static final Path2D.Double OUTLINE = createOutline();
+	// the outline drawn at low quality
+	private static final Rectangle2D.Double SIMPLE_OUTLINE = new Rectangle2D.Double(0, 0, 0.5, 2);
+
+	@Override
+	public void paint(Graphics2D g, IGizmo gizmo, RenderQuality quality) {
+		double orientation = Math.PI / 2 * gizmo.getOrientation();
+		double angle = ((Flipper) gizmo).getAngle();
+		int x = gizmo.getX(), y = gizmo.getY();
+
+		// rotate the graphics rather than the outline, so the outline isn't
+		// copied every frame
+		AffineTransform transform = g.getTransform();
+		g.translate(x, y);
+		g.rotate(orientation, 1, 1);
+		g.rotate(angle, 0.25, 0.25);
+
+		if (quality.isSimplified()) {
+			g.setColor(FILL_COLOUR);
+			g.fill(SIMPLE_OUTLINE);
+		} else {
+			g.setColor(FILL_COLOUR);
+			g.fill(OUTLINE);
+
+			g.setColor(OUTLINE_COLOUR);
+			g.draw(OUTLINE);
+		}
+
+		g.setTransform(transform);
+	}
+
+	private static Path2D.Double createOutline() {
+		Path2D.Double path = new Path2D.Double();
+		path.moveTo(0, 0.25);
+		path.lineTo(0, 1.75);
+		path.curveTo(0, 2, 0.5, 2, 0.5, 1.75);
+		path.lineTo(0.5, 0.25);
+		path.curveTo(0.5, 0, 0, 0, 0, 0.25);
+
+		return path;
+	}
+}
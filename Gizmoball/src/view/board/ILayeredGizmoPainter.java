@@ -0,0 +1,31 @@
+package view.board;
+
+import java.awt.Graphics2D;
+
+import model.gizmos.IGizmo;
+
+/**
+ * A painter for a gizmo which is static apart from a small part which
+ * changes while the game is running. The static part can be cached in the
+ * background layer and the rest painted every frame.
+ */
+public interface ILayeredGizmoPainter extends IGizmoPainter {
+	
+	/**
+	 * Paints the parts of the gizmo which only change in design mode.
+	 * 
+	 * @param g - the graphic to paint to.
+	 * @param gizmo - the gizmo to paint.
+	 * @param quality - the quality to paint at.
+	 */
+	void paintStatic(Graphics2D g, IGizmo gizmo, RenderQuality quality);
+	
+	/**
+	 * Paints the parts of the gizmo which can change while running.
+	 * 
+	 * @param g - the graphic to paint to.
+	 * @param gizmo - the gizmo to paint.
+	 * @param quality - the quality to paint at.
+	 */
+	void paintDynamic(Graphics2D g, IGizmo gizmo, RenderQuality quality);
+}
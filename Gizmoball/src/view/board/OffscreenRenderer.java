@@ -0,0 +1,249 @@
+package view.board;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import model.Board;
+
+/**
+ * Draws a board into offscreen images and writes them out as a numbered
+ * sequence of frames, this works without a display so can be used with
+ * java.awt.headless=true.
+ * 
+ * <p>
+ * A fixed pool of frame buffers is reused, a frame is drawn into a free
+ * buffer and then handed to a pool of encoder threads which write it out
+ * and give the buffer back. If every buffer is waiting to be written then
+ * drawing blocks, so the speed is limited by the encoders rather than by
+ * allocating images. Once a frame has failed to be written the encoders
+ * skip the rest, and the failure is thrown by the next call.
+ */
+public class OffscreenRenderer {
+	
+	/**
+	 * The file format of the frames.
+	 */
+	public enum FrameFormat {
+		
+		PNG("png"),
+		RGB("rgb");
+		
+		private final String extension;
+
+		private FrameFormat(String extension) {
+			this.extension = extension;
+		}
+
+		/**
+		 * Gets the file name extension of the format, which is also the
+		 * name ImageIO knows it by.
+		 */
+		public String getExtension() {
+			return extension;
+		}
+	}
+
+	private static final AffineTransform IDENTITY = new AffineTransform();
+
+	private BoardRenderer renderer;
+	private File directory;
+	private FrameFormat format;
+	private int width, height;
+	private BlockingQueue<Frame> freeFrames;
+	private ExecutorService encoders;
+	private ThreadLocal<byte[]> rgbBuffers;
+	// the frames handed to the encoders which haven't been checked, in order
+	private Queue<Future<Void>> writing;
+	private volatile boolean failed;
+
+	/**
+	 * Creates a new offscreen renderer.
+	 * 
+	 * @param board - the board to draw.
+	 * @param width - the width of each frame in pixels.
+	 * @param height - the height of each frame in pixels.
+	 * @param format - the format to write the frames in.
+	 * @param directory - the directory to write the frames to.
+	 * @param encoderThreads - the number of threads writing frames.
+	 */
+	public OffscreenRenderer(Board board, int width, int height, FrameFormat format, File directory, int encoderThreads) {
+		this.width = width;
+		this.height = height;
+		this.format = format;
+		this.directory = directory;
+
+		renderer = new BoardRenderer(board);
+		renderer.setBackgroundColour(Color.black);
+
+		// two buffers per encoder lets drawing carry on while they are busy
+		freeFrames = new ArrayBlockingQueue<Frame>(encoderThreads * 2);
+
+		for (int i = 0; i < encoderThreads * 2; i++) {
+			freeFrames.add(new Frame(width, height));
+		}
+
+		encoders = Executors.newFixedThreadPool(encoderThreads);
+		rgbBuffers = new ThreadLocal<byte[]>();
+		writing = new LinkedList<Future<Void>>();
+
+		ImageIO.setUseCache(false);
+	}
+
+	/**
+	 * Draws the current state of the board and queues it to be written as
+	 * the specified frame. This blocks until a frame buffer is free.
+	 * 
+	 * @param number - the frame number, used to name the file.
+	 * @throws IOException Thrown if an earlier frame could not be written.
+	 * @throws InterruptedException Thrown if interrupted waiting for a buffer.
+	 */
+	public void renderFrame(int number) throws IOException, InterruptedException {
+		// only the frames already written, so this doesn't wait
+		while (!writing.isEmpty() && writing.peek().isDone())
+			check(writing.poll());
+
+		final Frame frame = freeFrames.take();
+		frame.number = number;
+		frame.graphics.setTransform(IDENTITY);
+		renderer.render(frame.graphics, width, height, false);
+
+		writing.add(encoders.submit(new Callable<Void>() {
+			@Override
+			public Void call() throws IOException {
+				boolean written = false;
+
+				try {
+					if (!failed)
+						write(frame);
+
+					written = true;
+				} finally {
+					if (!written)
+						failed = true;
+
+					freeFrames.add(frame);
+				}
+
+				return null;
+			}
+		}));
+	}
+
+	/**
+	 * Waits for every queued frame to be written and stops the encoders.
+	 * 
+	 * @throws IOException Thrown if a frame could not be written.
+	 * @throws InterruptedException Thrown if interrupted while waiting.
+	 */
+	public void finish() throws IOException, InterruptedException {
+		encoders.shutdown();
+		encoders.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+
+		for (Frame frame : freeFrames) {
+			frame.graphics.dispose();
+		}
+
+		while (!writing.isEmpty())
+			check(writing.poll());
+	}
+
+	private void write(Frame frame) throws IOException {
+		File file = new File(directory, String.format("frame%06d.%s", frame.number, format.getExtension()));
+
+		switch (format) {
+		case PNG:
+			if (!ImageIO.write(frame.image, format.getExtension(), file))
+				throw new IOException("No PNG writer available.");
+			break;
+
+		case RGB:
+			writeRgb(frame, file);
+			break;
+		}
+	}
+
+	/**
+	 * Writes the frame as raw 8 bit red, green, blue triples, one row at a
+	 * time from the top.
+	 */
+	private void writeRgb(Frame frame, File file) throws IOException {
+		int[] pixels = ((DataBufferInt) frame.image.getRaster().getDataBuffer()).getData();
+		byte[] bytes = rgbBuffers.get();
+
+		if (bytes == null || bytes.length != pixels.length * 3) {
+			bytes = new byte[pixels.length * 3];
+			rgbBuffers.set(bytes);
+		}
+
+		for (int i = 0, j = 0; i < pixels.length; i++) {
+			int pixel = pixels[i];
+			bytes[j++] = (byte) (pixel >> 16);
+			bytes[j++] = (byte) (pixel >> 8);
+			bytes[j++] = (byte) pixel;
+		}
+
+		OutputStream output = new FileOutputStream(file);
+
+		try {
+			output.write(bytes);
+		} finally {
+			output.close();
+		}
+	}
+
+	/**
+	 * Throws whatever stopped a frame being written, an unchecked exception
+	 * from an encoder as it was thrown. The encoders are stopped first, as
+	 * nothing more will be written.
+	 */
+	private void check(Future<Void> written) throws IOException, InterruptedException {
+		try {
+			written.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			encoders.shutdown();
+
+			if (cause instanceof IOException)
+				throw (IOException) cause;
+			else if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			else if (cause instanceof Error)
+				throw (Error) cause;
+
+			throw new IOException(cause);
+		}
+	}
+
+	/**
+	 * A reusable frame buffer.
+	 */
+	private static class Frame {
+		private BufferedImage image;
+		private Graphics2D graphics;
+		private int number;
+
+		private Frame(int width, int height) {
+			image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+			graphics = image.createGraphics();
+		}
+	}
+}
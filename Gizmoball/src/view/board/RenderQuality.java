@@ -0,0 +1,46 @@
+package view.board;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+
+/**
+ * The quality the board is drawn at. Lower levels trade looks for speed on
+ * slow hardware.
+ */
+public enum RenderQuality {
+	
+	/** Antialiased, with the grid and full shapes. */
+	High,
+	/** No antialiasing. */
+	Medium,
+	/** No antialiasing, no grid and simplified ball and flipper shapes. */
+	Low;
+	
+	/**
+	 * Sets the rendering hints for this level on a graphics context. Painters
+	 * are given the level too, and check {@link #isSimplified()} to see
+	 * whether they should draw simpler shapes.
+	 * 
+	 * @param g - the graphics to set up.
+	 */
+	public void apply(Graphics2D g) {
+		g.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+				this == High ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
+		g.setRenderingHint(RenderingHints.KEY_RENDERING,
+				this == Low ? RenderingHints.VALUE_RENDER_SPEED : RenderingHints.VALUE_RENDER_QUALITY);
+	}
+	
+	/**
+	 * Gets whether the grid should be drawn in design mode.
+	 */
+	public boolean showGrid() {
+		return this != Low;
+	}
+	
+	/**
+	 * Gets whether painters should draw simplified shapes.
+	 */
+	public boolean isSimplified() {
+		return this == Low;
+	}
+}
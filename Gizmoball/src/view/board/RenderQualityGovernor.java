@@ -0,0 +1,97 @@
+package view.board;
+
+import java.util.Observable;
+
+/**
+ * Picks the quality to draw the board at from how long recent frames have
+ * taken to paint. When painting goes over budget the quality is stepped
+ * down, and when there has been plenty of headroom for a while it is
+ * stepped back up. Observers are notified with the new level whenever it
+ * changes.
+ */
+public class RenderQualityGovernor extends Observable {
+	
+	// frames in a row over budget before stepping down
+	private static final int STEP_DOWN_FRAMES = 5;
+	// frames in a row with headroom before stepping up, long enough to avoid flickering between levels
+	private static final int STEP_UP_FRAMES = 90;
+	// the fraction of the budget a frame must fit in to count as headroom
+	private static final double HEADROOM = 0.5;
+	// weight given to each new paint time in the running average
+	private static final double SMOOTHING = 0.125;
+
+	private long budget;
+	// changed by the thread drawing and read by others
+	private volatile RenderQuality level;
+	private double averagePaintTime;
+	private int overBudgetFrames, underBudgetFrames;
+
+	/**
+	 * Creates a new governor.
+	 * 
+	 * @param budget - the time allowed for painting a frame, in nanoseconds.
+	 */
+	public RenderQualityGovernor(long budget) {
+		this.budget = budget;
+		this.level = RenderQuality.High;
+	}
+
+	/**
+	 * Records how long a frame took to paint and changes the level if needed.
+	 * 
+	 * @param paintTime - the time taken in nanoseconds.
+	 */
+	public void frameRendered(long paintTime) {
+		if (averagePaintTime == 0)
+			averagePaintTime = paintTime;
+		else
+			averagePaintTime += (paintTime - averagePaintTime) * SMOOTHING;
+
+		if (averagePaintTime > budget) {
+			underBudgetFrames = 0;
+
+			if (++overBudgetFrames >= STEP_DOWN_FRAMES && level.ordinal() < RenderQuality.values().length - 1)
+				setLevel(RenderQuality.values()[level.ordinal() + 1]);
+		} else if (averagePaintTime < budget * HEADROOM) {
+			overBudgetFrames = 0;
+
+			if (++underBudgetFrames >= STEP_UP_FRAMES && level.ordinal() > 0)
+				setLevel(RenderQuality.values()[level.ordinal() - 1]);
+		} else {
+			overBudgetFrames = 0;
+			underBudgetFrames = 0;
+		}
+	}
+
+	/**
+	 * Gets the level the board should currently be drawn at.
+	 */
+	public RenderQuality getLevel() {
+		return level;
+	}
+
+	/**
+	 * Gets the running average paint time.
+	 * 
+	 * @return The average in nanoseconds.
+	 */
+	public long getAveragePaintTime() {
+		return (long) averagePaintTime;
+	}
+
+	public long getBudget() {
+		return budget;
+	}
+
+	private void setLevel(RenderQuality level) {
+		this.level = level;
+
+		// start measuring again so the new level gets a fair chance
+		averagePaintTime = 0;
+		overBudgetFrames = 0;
+		underBudgetFrames = 0;
+
+		this.setChanged();
+		this.notifyObservers(level);
+	}
+}
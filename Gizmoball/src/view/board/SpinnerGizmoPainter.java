@@ -1,36 +1,56 @@
-package view.board;
-
-import java.awt.Color;
-import java.awt.Graphics2D;
-import java.awt.geom.AffineTransform;
-import java.awt.geom.Path2D;
-
-import model.gizmos.IGizmo;
-import model.gizmos.SpinnerGizmo;
-
-public class SpinnerGizmoPainter implements IGizmoPainter {
-
-	@Override
-	public void paint(Graphics2D g, IGizmo gizmo) {
-		int x = gizmo.getX(), y = gizmo.getY();
-
-		SpinnerGizmo spinner = (SpinnerGizmo) gizmo;
-
-		Path2D.Double path = new Path2D.Double();
-		path.moveTo(x + 0.75, y + 0.25);
-		path.lineTo(x + 0.75, y + 1.75);
-		path.curveTo(x + 0.75, y + 2, x + 1.25, y + 2, x + 1.25, y + 1.75);
-		path.lineTo(x + 1.25, y + 0.25);
-		path.curveTo(x + 1.25, y, x + 0.75, y, x + 0.75, y + 0.25);
-
-		if (spinner.getAngle() != 0)
-			path.transform(AffineTransform.getRotateInstance(spinner.getAngle(), x + 1, y + 1));
-
-		g.setColor(Color.ORANGE);
-		g.fill(path);
-
-		g.setColor(Color.ORANGE.darker());
-		g.draw(path);
-	}
-
-}
+package view.board;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+
+import model.gizmos.IGizmo;
+import model.gizmos.SpinnerGizmo;
+
+public class SpinnerGizmoPainter implements IGizmoPainter {
+
+	private static final Color FILL_COLOUR = Color.ORANGE;
+	private static final Color OUTLINE_COLOUR = Color.ORANGE.darker();
+	// every spinner has the same outline, relative to its top left corner
+	private static final Path2D.Double OUTLINE = createOutline();
+	// the outline drawn at low quality
+	private static final Rectangle2D.Double SIMPLE_OUTLINE = new Rectangle2D.Double(0.75, 0, 0.5, 2);
+
+	@Override
+	public void paint(Graphics2D g, IGizmo gizmo, RenderQuality quality) {
+		double angle = ((SpinnerGizmo) gizmo).getAngle();
+		int x = gizmo.getX(), y = gizmo.getY();
+
+		// rotate the graphics rather than the outline, so the outline isn't
+		// copied every frame
+		AffineTransform transform = g.getTransform();
+		g.translate(x, y);
+		g.rotate(angle, 1, 1);
+
+		if (quality.isSimplified()) {
+			g.setColor(FILL_COLOUR);
+			g.fill(SIMPLE_OUTLINE);
+		} else {
+			g.setColor(FILL_COLOUR);
+			g.fill(OUTLINE);
+
+			g.setColor(OUTLINE_COLOUR);
+			g.draw(OUTLINE);
+		}
+
+		g.setTransform(transform);
+	}
+
+	private static Path2D.Double createOutline() {
+		Path2D.Double path = new Path2D.Double();
+		path.moveTo(0.75, 0.25);
+		path.lineTo(0.75, 1.75);
+		path.curveTo(0.75, 2, 1.25, 2, 1.25, 1.75);
+		path.lineTo(1.25, 0.25);
+		path.curveTo(1.25, 0, 0.75, 0, 0.75, 0.25);
+
+		return path;
+	}
+}
@@ -0,0 +1,218 @@
+package view.board;
+
+import java.awt.geom.Rectangle2D;
+import java.util.List;
+import java.util.Observable;
+
+import model.Ball;
+import model.Board;
+
+/**
+ * The region of the board which a view shows. By default this is the whole
+ * board, it can be zoomed in and panned around manually or made to follow
+ * the ball. Observers are notified whenever the region changes.
+ */
+public class Viewport extends Observable {
+	// the fewest cells which can be shown across the view
+	private static final double MIN_SIZE = 4;
+
+	private Board board;
+	private double x, y, width, height;
+	private int boardWidth, boardHeight;
+	private boolean following;
+
+	/**
+	 * Creates a viewport showing the whole of a board.
+	 *
+	 * @param board - the board being viewed.
+	 */
+	public Viewport(Board board) {
+		this.board = board;
+		showAll();
+	}
+
+	/**
+	 * Shows the whole board.
+	 */
+	public synchronized void showAll() {
+		boardWidth = board.getWidth();
+		boardHeight = board.getHeight();
+		setRegion(0, 0, boardWidth, boardHeight);
+	}
+
+	/**
+	 * Moves the view by an amount, the view is kept within the board.
+	 *
+	 * @param dx - the distance to move right, in board units.
+	 * @param dy - the distance to move down, in board units.
+	 */
+	public synchronized void pan(double dx, double dy) {
+		setRegion(x + dx, y + dy, width, height);
+	}
+
+	/**
+	 * Zooms the view in or out keeping a point of the board at the same
+	 * place in the view.
+	 *
+	 * @param factor - how much to magnify by, less than 1 zooms out.
+	 * @param anchorX - the x position of the fixed point, in board units.
+	 * @param anchorY - the y position of the fixed point, in board units.
+	 */
+	public synchronized void zoom(double factor, double anchorX, double anchorY) {
+		checkBoardSize();
+
+		// don't zoom in past the minimum size or out past the whole board
+		double minFactor = Math.max(width / boardWidth, height / boardHeight);
+		double maxFactor = Math.min(width / Math.min(MIN_SIZE, boardWidth), height / Math.min(MIN_SIZE, boardHeight));
+		factor = Math.max(minFactor, Math.min(factor, maxFactor));
+
+		double newWidth = width / factor, newHeight = height / factor;
+		setRegion(anchorX - (anchorX - x) / factor, anchorY - (anchorY - y) / factor, newWidth, newHeight);
+	}
+
+	/**
+	 * Zooms the view about its centre.
+	 *
+	 * @param factor - how much to magnify by, less than 1 zooms out.
+	 */
+	public synchronized void zoom(double factor) {
+		zoom(factor, x + width / 2, y + height / 2);
+	}
+
+	/**
+	 * Sets whether the view follows the first ball on the board.
+	 */
+	public synchronized void setFollowing(boolean following) {
+		this.following = following;
+		follow();
+	}
+
+	public synchronized boolean isFollowing() {
+		return following;
+	}
+
+	/**
+	 * Centres the view on the ball being followed, this should be called
+	 * each frame.
+	 *
+	 * @return True if the view moved; otherwise, false.
+	 */
+	public synchronized boolean follow() {
+		List<Ball> balls = board.getBalls();
+
+		if (!following || balls.isEmpty())
+			return false;
+
+		Ball ball = balls.get(0);
+		double oldX = x, oldY = y;
+		setRegion(ball.getX() - width / 2, ball.getY() - height / 2, width, height);
+
+		return x != oldX || y != oldY;
+	}
+
+	/**
+	 * Gets the region of the board which is visible.
+	 *
+	 * @return A copy of the region in board units.
+	 */
+	public synchronized Rectangle2D.Double getRegion() {
+		checkBoardSize();
+		return new Rectangle2D.Double(x, y, width, height);
+	}
+
+	/**
+	 * Gets the scale from board units to pixels along the x axis.
+	 *
+	 * @param pixelWidth - the width of the view in pixels.
+	 */
+	public synchronized double getXScale(int pixelWidth) {
+		checkBoardSize();
+		return pixelWidth / width;
+	}
+
+	/**
+	 * Gets the scale from board units to pixels along the y axis.
+	 *
+	 * @param pixelHeight - the height of the view in pixels.
+	 */
+	public synchronized double getYScale(int pixelHeight) {
+		checkBoardSize();
+		return pixelHeight / height;
+	}
+
+	/**
+	 * Gets the position of the left of the view relative to the left of the
+	 * board, in pixels. This is rounded to a whole pixel so that cached
+	 * images of the board line up exactly when the view is panned.
+	 *
+	 * @param pixelWidth - the width of the view in pixels.
+	 */
+	public synchronized int getPixelX(int pixelWidth) {
+		return (int) Math.round(x * getXScale(pixelWidth));
+	}
+
+	/**
+	 * Gets the position of the top of the view relative to the top of the
+	 * board, in pixels.
+	 *
+	 * @param pixelHeight - the height of the view in pixels.
+	 */
+	public synchronized int getPixelY(int pixelHeight) {
+		return (int) Math.round(y * getYScale(pixelHeight));
+	}
+
+	/**
+	 * Converts an x position in the view from pixels to board units.
+	 */
+	public synchronized double toBoardX(int px, int pixelWidth) {
+		return (px + getPixelX(pixelWidth)) / getXScale(pixelWidth);
+	}
+
+	/**
+	 * Converts a y position in the view from pixels to board units.
+	 */
+	public synchronized double toBoardY(int py, int pixelHeight) {
+		return (py + getPixelY(pixelHeight)) / getYScale(pixelHeight);
+	}
+
+	/**
+	 * Converts an x position from board units to pixels in the view.
+	 */
+	public synchronized double toPixelX(double bx, int pixelWidth) {
+		return bx * getXScale(pixelWidth) - getPixelX(pixelWidth);
+	}
+
+	/**
+	 * Converts a y position from board units to pixels in the view.
+	 */
+	public synchronized double toPixelY(double by, int pixelHeight) {
+		return by * getYScale(pixelHeight) - getPixelY(pixelHeight);
+	}
+
+	/**
+	 * Shows the whole board again if its size has changed.
+	 */
+	private void checkBoardSize() {
+		if (board.getWidth() != boardWidth || board.getHeight() != boardHeight)
+			showAll();
+	}
+
+	/**
+	 * Sets the visible region, keeping it within the board.
+	 */
+	private void setRegion(double x, double y, double width, double height) {
+		width = Math.min(width, boardWidth);
+		height = Math.min(height, boardHeight);
+		x = Math.max(0, Math.min(x, boardWidth - width));
+		y = Math.max(0, Math.min(y, boardHeight - height));
+
+		if (x != this.x || y != this.y || width != this.width || height != this.height) {
+			this.x = x;
+			this.y = y;
+			this.width = width;
+			this.height = height;
+			this.setChanged();
+			this.notifyObservers();
+		}
+	}
+}
@@ -1,187 +1,569 @@
-package view.window;
-
-import java.awt.BorderLayout;
-import java.awt.Dimension;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-import java.awt.event.KeyListener;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.util.Observable;
-import java.util.Observer;
-
-import javax.swing.JFileChooser;
-import javax.swing.JFrame;
-import javax.swing.JLabel;
-import javax.swing.JMenu;
-import javax.swing.JMenuBar;
-import javax.swing.JMenuItem;
-import javax.swing.JOptionPane;
-import javax.swing.JPanel;
-import javax.swing.border.EmptyBorder;
-
-import view.board.AnimationPanel;
-import controller.DesignModeViewModel;
-import controller.GizmoballViewModel;
-import controller.GizmoballViewModel.UpdateReason;
-import controller.MagicKeyListener;
-import exceptions.BadFileException;
-
-/**
- * Main application window.
- */
-@SuppressWarnings("serial")
-public class ApplicationWindow extends JFrame implements Observer {
-	public static final int L = 20;
-
-	private GizmoballViewModel viewmodel;
-	private DesignModeViewModel designmodeViewmodel;
-
-	private JMenuItem newMenuItem, openMenuItem, saveMenuItem;
-	private AnimationPanel boardView;
-	private ToolbarButtonArea toolbar;
-	private JPanel contentPane;
-	private JLabel statusBar;
-
-	/**
-	 * Creates a new window for gizmoball. 
-	 */
-	public ApplicationWindow(GizmoballViewModel viewModel, DesignModeViewModel designModeViewModel) {
-		super("Gizmoball");
-		super.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-
-		this.viewmodel = viewModel;
-		this.viewmodel.addObserver(this);
-
-		this.designmodeViewmodel = designModeViewModel;
-		this.designmodeViewmodel.addObserver(this);
-
-		initialiseComponents();
-		initialiseActionListeners();
-	}
-
-	/**
-	 * Initialise all the window components. 
-	 */
-	private void initialiseComponents() {
-		toolbar = new ToolbarButtonArea(viewmodel, designmodeViewmodel);
-		boardView = new AnimationPanel(viewmodel, designmodeViewmodel);
-
-		JMenuBar menubar = new JMenuBar();
-		super.setJMenuBar(menubar);
-
-		JMenu fileMenu = new JMenu("File");
-		menubar.add(fileMenu);
-
-		newMenuItem = new JMenuItem("New");
-		fileMenu.add(newMenuItem);
-
-		openMenuItem = new JMenuItem("Open");
-		fileMenu.add(openMenuItem);
-
-		saveMenuItem = new JMenuItem("Save");
-		fileMenu.add(saveMenuItem);
-
-		statusBar = new JLabel();
-		statusBar.setBorder(new EmptyBorder(5, 5, 5, 5));
-
-		contentPane = new JPanel();
-		contentPane.setLayout(new BorderLayout());
-		contentPane.setPreferredSize(new Dimension(530, 410));
-		contentPane.add(boardView, BorderLayout.CENTER);
-		contentPane.add(toolbar, BorderLayout.EAST);
-		contentPane.add(statusBar, BorderLayout.SOUTH);
-
-		super.setContentPane(contentPane);
-		super.setMinimumSize(new Dimension(650, 580));
-
-		super.pack();
-		super.requestFocus();
-	}
-
-	/**
-	 * Sets action listeners. 
-	 */
-	private void initialiseActionListeners() {
-		final JFrame parent = this;
-
-		newMenuItem.addActionListener(new ActionListener() {
-			@Override
-			public void actionPerformed(ActionEvent e) {
-				viewmodel.newGame();
-			}
-		});
-
-		openMenuItem.addActionListener(new ActionListener() {
-			@Override
-			public void actionPerformed(ActionEvent e) {
-				JFileChooser chooser = new JFileChooser(System
-						.getProperty("user.dir"));
-
-				if (chooser.showOpenDialog(parent) == JFileChooser.APPROVE_OPTION) {
-					File file = chooser.getSelectedFile();
-
-					try {
-						viewmodel.loadGame(file.getAbsolutePath());
-					} catch (FileNotFoundException ex) {
-						JOptionPane.showMessageDialog(parent,
-								"The file cannot be found.", "Load error",
-								JOptionPane.ERROR_MESSAGE);
-					} catch (IOException ex) {
-						JOptionPane.showMessageDialog(parent,
-								"Error reading file: " + ex.getMessage(),
-								"Load error", JOptionPane.ERROR_MESSAGE);
-					} catch (BadFileException ex) {
-						JOptionPane.showMessageDialog(
-								parent,
-								"The file format is incorrect: "
-										+ ex.getMessage(), "Load error",
-								JOptionPane.ERROR_MESSAGE);
-					}
-				}
-			}
-		});
-
-		saveMenuItem.addActionListener(new ActionListener() {
-			@Override
-			public void actionPerformed(ActionEvent e) {
-				JFileChooser chooser = new JFileChooser(System
-						.getProperty("user.dir"));
-
-				if (chooser.showSaveDialog(parent) == JFileChooser.APPROVE_OPTION) {
-					File file = chooser.getSelectedFile();
-
-					try {
-						viewmodel.saveGame(file.getAbsolutePath());
-					} catch (IOException ex) {
-						JOptionPane.showMessageDialog(parent,
-								"Error writing file: " + ex.getMessage(),
-								"Save error", JOptionPane.ERROR_MESSAGE);
-					}
-				}
-			}
-		});
-	}
-
-	@Override
-	public void update(Observable source, Object arg) {
-		UpdateReason reason = (UpdateReason) arg;
-
-		switch (reason) {
-		case RunStateChanged:
-			toolbar.setRunMode(viewmodel.getIsRunning());
-
-			if (viewmodel.getIsRunning())
-				contentPane.remove(statusBar);
-			else
-				contentPane.add(statusBar, BorderLayout.SOUTH);
-
-			break;
-
-		case StatusChanged:
-			statusBar.setText(designmodeViewmodel.getStatusMessage());
-			break;
-		}
-	}
-}
+package view.window;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.List;
+import java.util.Observable;
+import java.util.Observer;
+import java.util.concurrent.ExecutionException;
+
+import javax.swing.JCheckBoxMenuItem;
+import javax.swing.JDialog;
+import javax.swing.JFileChooser;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JMenu;
+import javax.swing.JMenuBar;
+import javax.swing.JMenuItem;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.KeyStroke;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.border.EmptyBorder;
+
+import model.CompressedFiles;
+import model.IBoardItem;
+import model.ICompressionErrorListener;
+import model.ILoadProgressListener;
+import view.board.ActiveRenderCanvas;
+import view.board.AnimationPanel;
+import view.board.Viewport;
+import controller.DesignModeViewModel;
+import controller.GizmoballViewModel;
+import controller.GizmoballViewModel.UpdateReason;
+import controller.MagicKeyListener;
+import exceptions.BadFileException;
+
+/**
+ * Main application window.
+ */
+@SuppressWarnings("serial")
+public class ApplicationWindow extends JFrame implements Observer {
+	public static final int L = 20;
+	// set this system property to true to draw run mode with active rendering
+	public static final String ACTIVE_RENDERING_PROPERTY = "gizmoball.activeRendering";
+	// how much the view menu zooms by
+	private static final double ZOOM_STEP = 2;
+
+	private GizmoballViewModel viewmodel;
+	private DesignModeViewModel designmodeViewmodel;
+
+	private JMenuItem newMenuItem, openMenuItem, saveMenuItem;
+	private JMenuItem saveCheckpointMenuItem, restoreCheckpointMenuItem;
+	private JCheckBoxMenuItem recordReplayMenuItem;
+	private JMenuItem openReplayMenuItem;
+	private JMenuItem undoMenuItem, redoMenuItem;
+	private JMenuItem zoomInMenuItem, zoomOutMenuItem, showAllMenuItem;
+	private JCheckBoxMenuItem followBallMenuItem;
+	private AnimationPanel boardView;
+	private ActiveRenderCanvas activeBoardView;
+	private ToolbarButtonArea toolbar;
+	private JPanel contentPane;
+	private JLabel statusBar;
+
+	/**
+	 * Creates a new window for gizmoball. 
+	 */
+	public ApplicationWindow(GizmoballViewModel viewModel, DesignModeViewModel designModeViewModel) {
+		super("Gizmoball");
+		super.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+
+		this.viewmodel = viewModel;
+		this.viewmodel.addObserver(this);
+
+		this.designmodeViewmodel = designModeViewModel;
+		this.designmodeViewmodel.addObserver(this);
+
+		initialiseComponents();
+		initialiseActionListeners();
+		initialiseViewActionListeners();
+
+		// compressed saves are written out after they return, so fail later
+		final JFrame parent = this;
+
+		CompressedFiles.setErrorListener(new ICompressionErrorListener() {
+			@Override
+			public void compressionFailed(final String fileName, final IOException error) {
+				SwingUtilities.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						JOptionPane.showMessageDialog(parent,
+								"Error writing file " + fileName + ": " + error.getMessage(),
+								"Save error", JOptionPane.ERROR_MESSAGE);
+					}
+				});
+			}
+		});
+	}
+
+	/**
+	 * Initialise all the window components. 
+	 */
+	private void initialiseComponents() {
+		toolbar = new ToolbarButtonArea(viewmodel, designmodeViewmodel);
+		boardView = new AnimationPanel(viewmodel, designmodeViewmodel);
+
+		if (Boolean.getBoolean(ACTIVE_RENDERING_PROPERTY)) {
+			activeBoardView = new ActiveRenderCanvas(viewmodel);
+			activeBoardView.setViewport(boardView.getViewport());
+		}
+
+		JMenuBar menubar = new JMenuBar();
+		super.setJMenuBar(menubar);
+
+		JMenu fileMenu = new JMenu("File");
+		menubar.add(fileMenu);
+
+		newMenuItem = new JMenuItem("New");
+		fileMenu.add(newMenuItem);
+
+		openMenuItem = new JMenuItem("Open");
+		fileMenu.add(openMenuItem);
+
+		saveMenuItem = new JMenuItem("Save");
+		fileMenu.add(saveMenuItem);
+
+		fileMenu.addSeparator();
+
+		saveCheckpointMenuItem = new JMenuItem("Save Checkpoint");
+		fileMenu.add(saveCheckpointMenuItem);
+
+		restoreCheckpointMenuItem = new JMenuItem("Restore Checkpoint");
+		fileMenu.add(restoreCheckpointMenuItem);
+
+		fileMenu.addSeparator();
+
+		recordReplayMenuItem = new JCheckBoxMenuItem("Record Replay");
+		fileMenu.add(recordReplayMenuItem);
+
+		openReplayMenuItem = new JMenuItem("Open Replay");
+		fileMenu.add(openReplayMenuItem);
+
+		JMenu editMenu = new JMenu("Edit");
+		menubar.add(editMenu);
+
+		undoMenuItem = new JMenuItem("Undo");
+		undoMenuItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK));
+		editMenu.add(undoMenuItem);
+
+		redoMenuItem = new JMenuItem("Redo");
+		redoMenuItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Y, InputEvent.CTRL_DOWN_MASK));
+		editMenu.add(redoMenuItem);
+		updateEditMenu();
+
+		JMenu viewMenu = new JMenu("View");
+		menubar.add(viewMenu);
+
+		zoomInMenuItem = new JMenuItem("Zoom In");
+		viewMenu.add(zoomInMenuItem);
+
+		zoomOutMenuItem = new JMenuItem("Zoom Out");
+		viewMenu.add(zoomOutMenuItem);
+
+		showAllMenuItem = new JMenuItem("Show Whole Board");
+		viewMenu.add(showAllMenuItem);
+
+		followBallMenuItem = new JCheckBoxMenuItem("Follow Ball");
+		viewMenu.add(followBallMenuItem);
+
+		statusBar = new JLabel();
+		statusBar.setBorder(new EmptyBorder(5, 5, 5, 5));
+
+		contentPane = new JPanel();
+		contentPane.setLayout(new BorderLayout());
+		contentPane.setPreferredSize(new Dimension(530, 410));
+		contentPane.add(boardView, BorderLayout.CENTER);
+		contentPane.add(toolbar, BorderLayout.EAST);
+		contentPane.add(statusBar, BorderLayout.SOUTH);
+
+		super.setContentPane(contentPane);
+		super.setMinimumSize(new Dimension(650, 580));
+
+		super.pack();
+		super.requestFocus();
+	}
+
+	/**
+	 * Sets action listeners. 
+	 */
+	private void initialiseActionListeners() {
+		final JFrame parent = this;
+
+		newMenuItem.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				viewmodel.newGame();
+				designmodeViewmodel.clearHistory();
+			}
+		});
+
+		openMenuItem.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				JFileChooser chooser = new JFileChooser(System
+						.getProperty("user.dir"));
+
+				if (chooser.showOpenDialog(parent) == JFileChooser.APPROVE_OPTION) {
+					File file = chooser.getSelectedFile();
+
+					// loading replaces the board even if it fails part way
+					designmodeViewmodel.clearHistory();
+					loadInBackground(file.getAbsolutePath());
+				}
+			}
+		});
+
+		undoMenuItem.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				designmodeViewmodel.undo();
+			}
+		});
+
+		redoMenuItem.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				designmodeViewmodel.redo();
+			}
+		});
+
+		saveMenuItem.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				JFileChooser chooser = new JFileChooser(System
+						.getProperty("user.dir"));
+
+				if (chooser.showSaveDialog(parent) == JFileChooser.APPROVE_OPTION) {
+					File file = chooser.getSelectedFile();
+
+					try {
+						viewmodel.saveGame(file.getAbsolutePath());
+					} catch (IOException ex) {
+						JOptionPane.showMessageDialog(parent,
+								"Error writing file: " + ex.getMessage(),
+								"Save error", JOptionPane.ERROR_MESSAGE);
+					}
+				}
+			}
+		});
+
+		// checkpoints are saved and restored between frames, so a run
+		// carries on without stopping
+		saveCheckpointMenuItem.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				JFileChooser chooser = new JFileChooser(System
+						.getProperty("user.dir"));
+
+				if (chooser.showSaveDialog(parent) == JFileChooser.APPROVE_OPTION) {
+					File file = chooser.getSelectedFile();
+
+					try {
+						viewmodel.saveCheckpoint(file.getAbsolutePath());
+					} catch (IOException ex) {
+						JOptionPane.showMessageDialog(parent,
+								"Error writing file: " + ex.getMessage(),
+								"Save error", JOptionPane.ERROR_MESSAGE);
+					}
+				}
+			}
+		});
+
+		restoreCheckpointMenuItem.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				JFileChooser chooser = new JFileChooser(System
+						.getProperty("user.dir"));
+
+				if (chooser.showOpenDialog(parent) == JFileChooser.APPROVE_OPTION) {
+					File file = chooser.getSelectedFile();
+
+					try {
+						viewmodel.loadCheckpoint(file.getAbsolutePath());
+					} catch (Exception ex) {
+						showLoadError(ex);
+					} finally {
+						designmodeViewmodel.clearHistory();
+					}
+				}
+			}
+		});
+
+		// recording runs the board, and stops when it stops running
+		recordReplayMenuItem.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				if (!recordReplayMenuItem.isSelected()) {
+					viewmodel.stopRecording();
+					return;
+				}
+
+				JFileChooser chooser = new JFileChooser(System
+						.getProperty("user.dir"));
+
+				if (chooser.showSaveDialog(parent) == JFileChooser.APPROVE_OPTION) {
+					File file = chooser.getSelectedFile();
+
+					try {
+						viewmodel.startRecording(file.getAbsolutePath());
+					} catch (IOException ex) {
+						JOptionPane.showMessageDialog(parent,
+								"Error writing file: " + ex.getMessage(),
+								"Save error", JOptionPane.ERROR_MESSAGE);
+					}
+				}
+
+				recordReplayMenuItem.setSelected(viewmodel.getIsRecording());
+			}
+		});
+
+		openReplayMenuItem.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				JFileChooser chooser = new JFileChooser(System
+						.getProperty("user.dir"));
+
+				if (chooser.showOpenDialog(parent) != JFileChooser.APPROVE_OPTION)
+					return;
+
+				String time = JOptionPane.showInputDialog(parent,
+						"Seconds into the replay:", "0");
+
+				if (time == null)
+					return;
+
+				File file = chooser.getSelectedFile();
+				double seconds;
+
+				try {
+					seconds = Double.parseDouble(time.trim());
+				} catch (NumberFormatException ex) {
+					JOptionPane.showMessageDialog(parent,
+							"The time must be a number of seconds.",
+							"Replay error", JOptionPane.ERROR_MESSAGE);
+					return;
+				}
+
+				try {
+					viewmodel.seekReplay(file.getAbsolutePath(), seconds);
+				} catch (Exception ex) {
+					showLoadError(ex);
+				} finally {
+					designmodeViewmodel.clearHistory();
+				}
+			}
+		});
+	}
+
+	/**
+	 * Loads a board on a worker thread, showing how far it has got. The
+	 * board is drawn as it loads, but can't be used until it has finished.
+	 * The worker only reads the file, each part is put on the board on the
+	 * event dispatch thread.
+	 * 
+	 * @param path - the file to load.
+	 */
+	private void loadInBackground(final String path) {
+		// the worker changes the board, which the engine mustn't be stepping
+		viewmodel.stopRunning();
+
+		final JDialog progressDialog = new JDialog(this, "Loading", true);
+		final JProgressBar progressBar = new JProgressBar(0, 100);
+
+		progressBar.setBorder(new EmptyBorder(10, 10, 10, 10));
+		progressBar.setStringPainted(true);
+		progressDialog.add(progressBar);
+		progressDialog.setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
+		progressDialog.pack();
+		progressDialog.setLocationRelativeTo(this);
+
+		SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
+			@Override
+			protected Void doInBackground() throws Exception {
+				viewmodel.loadGame(path, new ILoadProgressListener() {
+					@Override
+					public void loadProgressed(List<IBoardItem> items, int linesLoaded, int lineCount) {
+						setProgress((int) (100L * linesLoaded / Math.max(1, lineCount)));
+					}
+				});
+				return null;
+			}
+
+			@Override
+			protected void done() {
+				progressDialog.dispose();
+
+				try {
+					get();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				} catch (ExecutionException ex) {
+					showLoadError(ex.getCause());
+				}
+			}
+		};
+
+		worker.addPropertyChangeListener(new PropertyChangeListener() {
+			@Override
+			public void propertyChange(PropertyChangeEvent e) {
+				if ("progress".equals(e.getPropertyName()))
+					progressBar.setValue((Integer) e.getNewValue());
+			}
+		});
+
+		worker.execute();
+		// this blocks until the worker is done and closes the dialog
+		progressDialog.setVisible(true);
+	}
+
+	private void showLoadError(Throwable error) {
+		if (error instanceof FileNotFoundException) {
+			JOptionPane.showMessageDialog(this,
+					"The file cannot be found.", "Load error",
+					JOptionPane.ERROR_MESSAGE);
+		} else if (error instanceof IOException) {
+			JOptionPane.showMessageDialog(this,
+					"Error reading file: " + error.getMessage(),
+					"Load error", JOptionPane.ERROR_MESSAGE);
+		} else if (error instanceof BadFileException) {
+			JOptionPane.showMessageDialog(
+					this,
+					"The file format is incorrect: "
+							+ error.getMessage(), "Load error",
+					JOptionPane.ERROR_MESSAGE);
+		} else {
+			throw new RuntimeException(error);
+		}
+	}
+
+	/**
+	 * Sets action listeners for the view menu.
+	 */
+	private void initialiseViewActionListeners() {
+		final Viewport viewport = boardView.getViewport();
+
+		zoomInMenuItem.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				viewport.zoom(ZOOM_STEP);
+			}
+		});
+
+		zoomOutMenuItem.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				viewport.zoom(1 / ZOOM_STEP);
+			}
+		});
+
+		showAllMenuItem.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				viewport.showAll();
+			}
+		});
+
+		followBallMenuItem.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				viewport.setFollowing(followBallMenuItem.isSelected());
+			}
+		});
+	}
+
+	/**
+	 * Enables undo and redo when there is something to undo or redo, edits
+	 * can only be made in design mode.
+	 */
+	private void updateEditMenu() {
+		boolean designing = !viewmodel.getIsRunning();
+
+		undoMenuItem.setEnabled(designing && designmodeViewmodel.canUndo());
+		redoMenuItem.setEnabled(designing && designmodeViewmodel.canRedo());
+	}
+
+	/**
+	 * Swaps between the Swing board view used in design mode and the
+	 * actively rendered one used in run mode.
+	 * 
+	 * @param running - whether the game is now running.
+	 */
+	private void swapBoardView(boolean running) {
+		if (running) {
+			contentPane.remove(boardView);
+			contentPane.add(activeBoardView, BorderLayout.CENTER);
+			contentPane.validate();
+
+			activeBoardView.start();
+			activeBoardView.requestFocus();
+		} else {
+			activeBoardView.stop();
+
+			contentPane.remove(activeBoardView);
+			contentPane.add(boardView, BorderLayout.CENTER);
+			contentPane.validate();
+			boardView.repaint();
+
+			showRenderStatistics();
+		}
+	}
+
+	/**
+	 * Shows how the active rendering of the last run performed in the status
+	 * bar, until the next status message replaces it.
+	 */
+	private void showRenderStatistics() {
+		String text = String.format("Frames took %.1f ms on average, %.1f ms at most, drawn at %s quality.",
+				activeBoardView.getAverageFrameTime() / 1e6, activeBoardView.getMaxFrameTime() / 1e6,
+				activeBoardView.getQualityGovernor().getLevel().toString().toLowerCase());
+
+		if (activeBoardView.getKeyCount() > 0)
+			text += String.format(" Keys reached the screen in %.1f ms on average, %.1f ms at most.",
+					activeBoardView.getAverageKeyLatency() / 1e6, activeBoardView.getMaxKeyLatency() / 1e6);
+
+		statusBar.setText(text);
+	}
+
+	@Override
+	public void update(Observable source, Object arg) {
+		UpdateReason reason = (UpdateReason) arg;
+
+		switch (reason) {
+		case RunStateChanged:
+			toolbar.setRunMode(viewmodel.getIsRunning());
+
+			if (viewmodel.getIsRunning())
+				contentPane.remove(statusBar);
+			else
+				contentPane.add(statusBar, BorderLayout.SOUTH);
+
+			if (activeBoardView != null)
+				swapBoardView(viewmodel.getIsRunning());
+
+			recordReplayMenuItem.setSelected(viewmodel.getIsRecording());
+			updateEditMenu();
+			break;
+
+		case BoardChanged:
+			if (source == designmodeViewmodel)
+				updateEditMenu();
+			break;
+
+		case StatusChanged:
+			statusBar.setText(designmodeViewmodel.getStatusMessage());
+			break;
+		}
+	}
+}